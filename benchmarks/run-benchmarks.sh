@@ -0,0 +1,25 @@
+#!/bin/sh
+# Compiles the game sources together with the JMH benchmarks and runs them from the repository root.
+# JMH and the SQLite driver are fetched from Maven Central into benchmarks/lib on first use.
+# Usage: benchmarks/run-benchmarks.sh [include-regex] [--save-baseline]
+set -e
+cd "$(dirname "$0")/.."
+
+LIB=benchmarks/lib
+OUT=benchmarks/target/classes
+REPO=https://repo1.maven.org/maven2
+mkdir -p "$LIB" "$OUT"
+
+fetch() {
+    [ -f "$LIB/$(basename "$1")" ] || curl -fsSL -o "$LIB/$(basename "$1")" "$REPO/$1"
+}
+fetch org/openjdk/jmh/jmh-core/1.37/jmh-core-1.37.jar
+fetch org/openjdk/jmh/jmh-generator-annprocess/1.37/jmh-generator-annprocess-1.37.jar
+fetch net/sf/jopt-simple/jopt-simple/5.0.4/jopt-simple-5.0.4.jar
+fetch org/apache/commons/commons-math3/3.6.1/commons-math3-3.6.1.jar
+fetch org/xerial/sqlite-jdbc/3.49.1.0/sqlite-jdbc-3.49.1.0.jar
+fetch org/slf4j/slf4j-api/1.7.36/slf4j-api-1.7.36.jar
+
+CP=$(ls "$LIB"/*.jar | tr '\n' ':')
+javac -encoding UTF-8 -cp "$CP" -d "$OUT" $(find src benchmarks/src -name '*.java')
+java -cp "$OUT:$CP" benchmark.BenchmarkRunner "$@"
@@ -0,0 +1,65 @@
+package benchmark;
+
+import model.Card;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import service.BattleService;
+import service.BattleService.BattleResult;
+import service.BatchBattleEvaluator;
+import service.DrawEventSink;
+import service.GachaService;
+import service.RandomSource;
+
+/**
+ * Fights over a fixed set of random pairings: one at a time through {@link BattleService#fight(Card, Card)},
+ * and all at once through {@link BatchBattleEvaluator}.
+ */
+@State(Scope.Thread)
+public class BattleBenchmark {
+    private static final int PAIRS = 1024;
+
+    private final BattleService battleService = new BattleService();
+    private final BatchBattleEvaluator batchEvaluator = new BatchBattleEvaluator();
+    private Card[] left;
+    private Card[] right;
+    private int next;
+    private int[] leftAttributes;
+    private int[] leftPowers;
+    private int[] rightAttributes;
+    private int[] rightPowers;
+    private final byte[] results = new byte[PAIRS];
+
+    @Setup
+    public void setUp() {
+        GachaService gachaService = new GachaService(RandomSource.seeded(42), DrawEventSink.NONE);
+        left = gachaService.drawCards(PAIRS).toArray(new Card[0]);
+        right = gachaService.drawCards(PAIRS).toArray(new Card[0]);
+        leftAttributes = new int[PAIRS];
+        leftPowers = new int[PAIRS];
+        rightAttributes = new int[PAIRS];
+        rightPowers = new int[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            leftAttributes[i] = left[i].getAttribute().ordinal();
+            leftPowers[i] = left[i].getBasePower();
+            rightAttributes[i] = right[i].getAttribute().ordinal();
+            rightPowers[i] = right[i].getBasePower();
+        }
+    }
+
+    @Benchmark
+    public BattleResult singleFight() {
+        int i = next++ & (PAIRS - 1);
+        return battleService.fight(left[i], right[i]);
+    }
+
+    /**
+     * All {@value #PAIRS} pairings in one batch.
+     */
+    @Benchmark
+    public byte[] batchFights() {
+        batchEvaluator.evaluate(leftAttributes, leftPowers, rightAttributes, rightPowers, results, PAIRS);
+        return results;
+    }
+}
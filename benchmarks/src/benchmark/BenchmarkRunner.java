@@ -0,0 +1,148 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the benchmarks with allocation profiling and compares the results against the stored baseline.
+ * <p>
+ * Usage: {@code BenchmarkRunner [include-regex] [--save-baseline]}. Results are written to
+ * {@code benchmarks/results/latest.csv}; with {@code --save-baseline} they also replace
+ * {@code benchmarks/results/baseline.csv}, which is meant to be committed once per release.
+ */
+public class BenchmarkRunner {
+    private static final Path RESULTS_DIR = Paths.get("benchmarks", "results");
+    private static final Path LATEST = RESULTS_DIR.resolve("latest.csv");
+    private static final Path BASELINE = RESULTS_DIR.resolve("baseline.csv");
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = "benchmark\\..*Benchmark.*";
+        boolean saveBaseline = false;
+        for (String arg : args) {
+            if ("--save-baseline".equals(arg)) {
+                saveBaseline = true;
+            } else {
+                include = arg;
+            }
+        }
+
+        Files.createDirectories(RESULTS_DIR);
+        Options options = new OptionsBuilder()
+                .include(include)
+                .mode(Mode.AverageTime)
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .forks(1)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.CSV)
+                .result(LATEST.toString())
+                .build();
+        new Runner(options).run();
+
+        if (Files.exists(BASELINE)) {
+            printComparison(readScores(BASELINE), readScores(LATEST));
+        } else {
+            System.out.println("No baseline at " + BASELINE + "; run with --save-baseline to record one.");
+        }
+        if (saveBaseline) {
+            Files.copy(LATEST, BASELINE, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Baseline updated: " + BASELINE);
+        }
+    }
+
+    private static void printComparison(Map<String, double[]> baseline, Map<String, double[]> latest) {
+        System.out.println();
+        System.out.println("Comparison with baseline (time in ns/op, allocation in B/op; lower is better):");
+        System.out.printf("%-70s %14s %14s %9s%n", "Benchmark", "baseline", "latest", "change");
+        for (Map.Entry<String, double[]> entry : latest.entrySet()) {
+            double[] before = baseline.get(entry.getKey());
+            double after = entry.getValue()[0];
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.3f %9s%n", entry.getKey(), "-", after, "new");
+            } else {
+                double change = before[0] == 0 ? 0 : (after - before[0]) / before[0] * 100;
+                System.out.printf("%-70s %14.3f %14.3f %+8.1f%%%n", entry.getKey(), before[0], after, change);
+            }
+        }
+    }
+
+    /**
+     * Reads the primary score and the normalized allocation rate of every benchmark in a JMH CSV result file.
+     * @return Scores keyed by benchmark name plus parameters; each value holds the score and its error.
+     */
+    private static Map<String, double[]> readScores(Path file) throws IOException {
+        Map<String, double[]> scores = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        if (lines.isEmpty()) {
+            return scores;
+        }
+        List<String> header = splitCsv(lines.get(0));
+        int nameColumn = header.indexOf("Benchmark");
+        int scoreColumn = header.indexOf("Score");
+        int errorColumn = header.indexOf("Score Error (99.9%)");
+        for (String line : lines.subList(1, lines.size())) {
+            List<String> fields = splitCsv(line);
+            String name = fields.get(nameColumn);
+            // Keep the timing and the per-operation allocation; skip the other profiler counters
+            if (name.contains(":") && !name.endsWith("gc.alloc.rate.norm")) {
+                continue;
+            }
+            StringBuilder key = new StringBuilder(name);
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).startsWith("Param: ") && i < fields.size() && !fields.get(i).isEmpty()) {
+                    key.append(' ').append(header.get(i).substring(7)).append('=').append(fields.get(i));
+                }
+            }
+            scores.put(key.toString(), new double[] {parse(fields.get(scoreColumn)), parse(fields.get(errorColumn))});
+        }
+        return scores;
+    }
+
+    private static double parse(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,51 @@
+package benchmark;
+
+import database.GameRecordService;
+import model.Card;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import service.DrawEventSink;
+import service.GachaService;
+import service.RandomSource;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Loading a player's deck through {@link GameRecordService#loadDeck(String)}.
+ * Uses the benchmark build's own database ({@code benchmarks/target/data}, next to the compiled classes), not the
+ * game's; a dedicated benchmark user is filled up to the requested deck size once.
+ * Standard output is discarded in the benchmark JVM because the service logs every card it touches.
+ */
+@State(Scope.Benchmark)
+public class DeckLoadBenchmark {
+
+    @Param({"100", "1000"})
+    public int deckSize;
+
+    private GameRecordService recordService;
+    private String username;
+
+    @Setup
+    public void setUp() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        recordService = new GameRecordService();
+        username = "benchmark_deck_" + deckSize;
+        int missing = deckSize - recordService.loadDeck(username).size();
+        if (missing > 0) {
+            GachaService gachaService = new GachaService(RandomSource.seeded(deckSize), DrawEventSink.NONE);
+            for (Card card : gachaService.drawCards(missing)) {
+                recordService.saveCardToDeck(username, card);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Card> loadDeck() {
+        return recordService.loadDeck(username);
+    }
+}
@@ -0,0 +1,49 @@
+package benchmark;
+
+import model.Card;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import service.DrawEventSink;
+import service.GachaService;
+import service.RandomSource;
+
+import java.util.List;
+
+/**
+ * Draw paths of {@link GachaService}: single pulls, 10-pulls and allocation-free bulk pulls.
+ * The audit sink is disabled so only the draw itself is measured.
+ */
+@State(Scope.Thread)
+public class GachaBenchmark {
+
+    @Param({"1000"})
+    public int bulkSize;
+
+    private GachaService gachaService;
+    private long[] buffer;
+
+    @Setup
+    public void setUp() {
+        gachaService = new GachaService(RandomSource.threadLocal(), DrawEventSink.NONE);
+        buffer = new long[bulkSize];
+    }
+
+    @Benchmark
+    public Card singlePull() {
+        return gachaService.drawCards(1).get(0);
+    }
+
+    @Benchmark
+    public List<Card> tenPull() {
+        return gachaService.drawCards(10);
+    }
+
+    @Benchmark
+    public long[] bulkPull() {
+        gachaService.drawInto(buffer, 0, bulkSize);
+        return buffer;
+    }
+}
@@ -0,0 +1,45 @@
+package benchmark;
+
+import controller.GameController;
+import controller.PlayStrategy;
+import model.Card;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import service.BattleService;
+import service.DrawEventSink;
+import service.GachaService;
+import service.RandomSource;
+
+import java.util.List;
+
+/**
+ * A full 10-round match through {@link GameController}: dealing the computer hand and playing every round.
+ */
+@State(Scope.Thread)
+public class MatchBenchmark {
+    private static final int HAND_SIZE = 10;
+
+    private GameController controller;
+    private List<Card> playerHand;
+
+    @Setup
+    public void setUp() {
+        GachaService gachaService = new GachaService(RandomSource.threadLocal(), DrawEventSink.NONE);
+        controller = new GameController(gachaService, new BattleService());
+        // Measures the match mechanics, not the computer's search
+        controller.setComputerStrategy(PlayStrategy.FIRST);
+        playerHand = gachaService.drawCards(HAND_SIZE);
+    }
+
+    @Benchmark
+    public String fullMatch(Blackhole blackhole) {
+        controller.setBattleCards(playerHand);
+        for (int round = 0; round < HAND_SIZE; round++) {
+            blackhole.consume(controller.playRound(0));
+        }
+        return controller.determineWinner();
+    }
+}
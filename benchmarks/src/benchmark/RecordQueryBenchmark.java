@@ -0,0 +1,92 @@
+package benchmark;
+
+import database.ConnectionPool;
+import database.GameRecordService;
+import database.PooledConnection;
+import model.Card;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import service.DrawEventSink;
+import service.GachaService;
+import service.RandomSource;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Per-user queries ({@link GameRecordService#getAllRecords(String)}, {@link GameRecordService#loadDeck(String)})
+ * while the rest of the database grows. The benchmark user always has the same number of records and cards, so
+ * with the username indexes the time should stay flat across {@code tableRows}; a table scan grows with it.
+ * Uses the benchmark build's own database ({@code benchmarks/target/data}, next to the compiled classes), not the
+ * game's: the {@code record} and {@code deck} tables are filled with rows of other benchmark users up to the
+ * requested size once, and kept for later runs.
+ */
+@State(Scope.Benchmark)
+public class RecordQueryBenchmark {
+    private static final String USERNAME = "benchmark_query";
+    private static final String BULK_USER_PREFIX = "benchmark_bulk_";
+    private static final int ROWS_PER_USER = 50;
+    private static final int BATCH_SIZE = 10_000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int tableRows;
+
+    private GameRecordService recordService;
+
+    @Setup
+    public void setUp() throws SQLException {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        recordService = new GameRecordService();
+        if (recordService.getAllRecords(USERNAME).isEmpty()) {
+            for (int i = 0; i < ROWS_PER_USER; i++) {
+                recordService.saveRecord(USERNAME, "Player", i % 6, 5 - i % 6);
+            }
+            GachaService gachaService = new GachaService(RandomSource.seeded(ROWS_PER_USER), DrawEventSink.NONE);
+            recordService.saveCardsToDeck(USERNAME, gachaService.drawCards(ROWS_PER_USER));
+        }
+        fill("record", "INSERT INTO record (username, player_name, wins, losses) VALUES (?, 'Player', 3, 2);");
+        fill("deck", "INSERT INTO deck (username, card_name, attribute, rarity, type, description, base_power)"
+                + " VALUES (?, 'Bulk', 'FIRE', 'R', 'BEAST', '', 4);");
+    }
+
+    // Adds rows of other users until the table holds tableRows of them
+    private void fill(String table, String insertSql) throws SQLException {
+        try (PooledConnection connection = ConnectionPool.shared(GameRecordService.DB_URL).writer()) {
+            int existing;
+            PreparedStatement count = connection.prepare(
+                    "SELECT COUNT(*) FROM " + table + " WHERE username LIKE '" + BULK_USER_PREFIX + "%';");
+            try (ResultSet rs = count.executeQuery()) {
+                existing = rs.next() ? rs.getInt(1) : 0;
+            }
+            PreparedStatement insert = connection.prepare(insertSql);
+            for (int row = existing; row < tableRows; ) {
+                connection.setAutoCommit(false);
+                int end = Math.min(tableRows, row + BATCH_SIZE);
+                for (; row < end; row++) {
+                    insert.setString(1, BULK_USER_PREFIX + row / ROWS_PER_USER);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                connection.commit();
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<String> recordsForUser() {
+        return recordService.getAllRecords(USERNAME);
+    }
+
+    @Benchmark
+    public List<Card> deckForUser() {
+        return recordService.loadDeck(USERNAME);
+    }
+}
@@ -0,0 +1,76 @@
+package ai;
+
+import java.util.Arrays;
+
+/**
+ * Minimum-cost assignment of rows to columns using the Hungarian algorithm with potentials, O(n^3).
+ */
+final class Assignment {
+
+    private Assignment() {
+    }
+
+    /**
+     * Finds the assignment with the lowest total cost.
+     * @param cost Square cost matrix; {@code cost[row][column]}.
+     * @return For every column, the row assigned to it.
+     */
+    static int[] solve(int[][] cost) {
+        int n = cost.length;
+        // 1-based so index 0 can act as the virtual start column
+        int[] rowPotential = new int[n + 1];
+        int[] columnPotential = new int[n + 1];
+        int[] rowOfColumn = new int[n + 1];
+        int[] previous = new int[n + 1];
+        int[] minSlack = new int[n + 1];
+        boolean[] visited = new boolean[n + 1];
+
+        for (int row = 1; row <= n; row++) {
+            rowOfColumn[0] = row;
+            int column = 0;
+            Arrays.fill(minSlack, Integer.MAX_VALUE);
+            Arrays.fill(visited, false);
+            // Grow an alternating tree until it reaches a free column
+            do {
+                visited[column] = true;
+                int currentRow = rowOfColumn[column];
+                int delta = Integer.MAX_VALUE;
+                int next = 0;
+                for (int j = 1; j <= n; j++) {
+                    if (!visited[j]) {
+                        int slack = cost[currentRow - 1][j - 1] - rowPotential[currentRow] - columnPotential[j];
+                        if (slack < minSlack[j]) {
+                            minSlack[j] = slack;
+                            previous[j] = column;
+                        }
+                        if (minSlack[j] < delta) {
+                            delta = minSlack[j];
+                            next = j;
+                        }
+                    }
+                }
+                for (int j = 0; j <= n; j++) {
+                    if (visited[j]) {
+                        rowPotential[rowOfColumn[j]] += delta;
+                        columnPotential[j] -= delta;
+                    } else {
+                        minSlack[j] -= delta;
+                    }
+                }
+                column = next;
+            } while (rowOfColumn[column] != 0);
+            // Flip the augmenting path
+            do {
+                int before = previous[column];
+                rowOfColumn[column] = rowOfColumn[before];
+                column = before;
+            } while (column != 0);
+        }
+
+        int[] assignment = new int[n];
+        for (int j = 1; j <= n; j++) {
+            assignment[j - 1] = rowOfColumn[j] - 1;
+        }
+        return assignment;
+    }
+}
@@ -0,0 +1,173 @@
+package ai;
+
+import controller.PlayStrategy;
+import model.Card;
+import model.Hand;
+import service.BattleService;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+/**
+ * Computer opponent that matches its hand against the opponent's.
+ * <p>
+ * Both hands are visible but the opponent's pick this round is not. The solver finds the assignment of its cards to
+ * the opponent's cards with the most round wins minus losses (Hungarian algorithm, O(n^3)), and plays the card
+ * assigned to the opponent's strongest card, which is where a player is most likely to lead.
+ * <p>
+ * Searching the rounds instead does not help: against an opponent whose order is unknown, the pairing of the cards
+ * is uniformly random whatever order the solver plays, so every order has the same expected result.
+ * Answers are cached per hand signature, so replaying a position costs one map lookup.
+ * The solver does not depend on time or randomness, so it is its own deterministic version.
+ * Instances are thread-safe and meant to be shared.
+ */
+public class CardOrderSolver implements PlayStrategy {
+    private static final int MAX_CACHE_SIZE = 1 << 16;
+    private static final int ATTRIBUTE_SHIFT = 24;
+    private static final int POWER_MASK = (1 << ATTRIBUTE_SHIFT) - 1;
+
+    private final BattleService battleService;
+    private final ConcurrentMap<HandSignature, Integer> cache = new ConcurrentHashMap<>();
+    private final LongAdder cacheHits = new LongAdder();
+
+    /**
+     * Creates a solver with the standard attribute bonuses.
+     */
+    public CardOrderSolver() {
+        this(new BattleService());
+    }
+
+    /**
+     * @param battleService The service whose rules decide each round.
+     */
+    public CardOrderSolver(BattleService battleService) {
+        this.battleService = battleService;
+    }
+
+    @Override
+    public int chooseCard(Hand ownHand, Hand opponentHand, int scoreMargin, RandomGenerator random) {
+        int[] ownSlots = ownHand.remainingSlots();
+        int n = ownSlots.length;
+        if (n != opponentHand.size()) {
+            throw new IllegalArgumentException("Both hands must hold the same number of cards.");
+        }
+        if (n == 1) {
+            return ownSlots[0];
+        }
+
+        // Work on sorted keys so equal hands share a signature whatever their order
+        int[] ownKeys = keysOf(ownHand, ownSlots);
+        int[] own = ownKeys.clone();
+        int[] opponent = keysOf(opponentHand, opponentHand.remainingSlots());
+        Arrays.sort(own);
+        Arrays.sort(opponent);
+        HandSignature signature = new HandSignature(own, opponent);
+
+        Integer cached = cache.get(signature);
+        if (cached != null) {
+            cacheHits.increment();
+            return ownSlots[indexOf(ownKeys, cached)];
+        }
+        int best = assignAgainstStrongest(opponent, outcomes(own, opponent));
+        if (cache.size() >= MAX_CACHE_SIZE) {
+            cache.clear();
+        }
+        cache.put(signature, own[best]);
+        return ownSlots[indexOf(ownKeys, own[best])];
+    }
+
+    /**
+     * @return How many moves were answered from the cache.
+     */
+    public long getCacheHitCount() {
+        return cacheHits.sum();
+    }
+
+    private static int[] keysOf(Hand hand, int[] slots) {
+        int[] keys = new int[slots.length];
+        for (int i = 0; i < keys.length; i++) {
+            Card card = hand.get(slots[i]);
+            keys[i] = card.getAttribute().ordinal() << ATTRIBUTE_SHIFT | (card.getBasePower() & POWER_MASK);
+        }
+        return keys;
+    }
+
+    private static int indexOf(int[] keys, int key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Chosen card is not in the hand.");
+    }
+
+    /**
+     * @return {@code outcomes[i][j]}: +1 if own card i beats opponent card j, -1 if it loses, 0 on a draw.
+     */
+    private int[][] outcomes(int[] own, int[] opponent) {
+        int n = own.length;
+        int[][] outcomes = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                long outcome = battleService.evaluate(own[i] >>> ATTRIBUTE_SHIFT, own[i] & POWER_MASK,
+                        opponent[j] >>> ATTRIBUTE_SHIFT, opponent[j] & POWER_MASK);
+                int result = BattleService.resultOf(outcome);
+                outcomes[i][j] = result == BattleService.FIRST_WINS ? 1 : result == BattleService.SECOND_WINS ? -1 : 0;
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * @return The index in the own hand of the card assigned to the opponent's strongest card.
+     */
+    private static int assignAgainstStrongest(int[] opponent, int[][] outcomes) {
+        int n = opponent.length;
+        int[][] cost = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                cost[i][j] = -outcomes[i][j];
+            }
+        }
+        int[] assignment = Assignment.solve(cost);
+        int strongest = 0;
+        for (int j = 1; j < n; j++) {
+            if ((opponent[j] & POWER_MASK) > (opponent[strongest] & POWER_MASK)) {
+                strongest = j;
+            }
+        }
+        return assignment[strongest];
+    }
+
+    private static final class HandSignature {
+        private final int[] own;
+        private final int[] opponent;
+        private final int hash;
+
+        HandSignature(int[] own, int[] opponent) {
+            this.own = own;
+            this.opponent = opponent;
+            this.hash = Arrays.hashCode(own) * 31 + Arrays.hashCode(opponent);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof HandSignature)) {
+                return false;
+            }
+            HandSignature other = (HandSignature) o;
+            return Arrays.equals(own, other.own) && Arrays.equals(opponent, other.opponent);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package ai;
+
+import controller.PlayStrategy;
+import model.Card;
+import model.Hand;
+import service.BattleService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+/**
+ * Computer opponent using Monte Carlo tree search; the normal difficulty.
+ * <p>
+ * Rounds are simultaneous, so every node keeps separate statistics for both sides and each side picks its card
+ * by UCB1 independently (decoupled UCT). New nodes are scored by a random playout over the remaining hands.
+ * Round outcomes come from a matrix filled once per move with {@link BattleService#evaluate}, so the search
+ * itself only allocates tree nodes.
+ * <p>
+ * The search is anytime: the calling thread and the worker threads share one tree and keep iterating until the
+ * time budget runs out, then the most visited card is played. A thread descending through a node counts its visit
+ * straight away and adds the reward on the way back (virtual loss), which steers concurrent threads apart.
+ * Instances are thread-safe and meant to be shared.
+ */
+public class MctsOpponent implements PlayStrategy, AutoCloseable {
+    /** Default per-move time budget. */
+    public static final long DEFAULT_BUDGET_NANOS = 20_000_000L;
+    /** Largest hand the search handles; both hands are tracked as bitmasks. */
+    public static final int MAX_HAND_SIZE = 16;
+
+    /**
+     * Iterations per move in seeded matches: what one core manages in the default budget on a full 10-card hand
+     * (about 50 000 measured; later moves with fewer cards left manage more).
+     */
+    public static final int DETERMINISTIC_ITERATIONS = 50_000;
+
+    private static final double DEFAULT_EXPLORATION = Math.sqrt(2);
+
+    private final BattleService battleService;
+    private final long budgetNanos;
+    private final int workers;
+    private final double exploration;
+    private final int iterationLimit; // 0 when the search is bounded by time
+    private final MctsOpponent deterministicVersion;
+    private final ExecutorService executor; // null when the search runs on the calling thread only
+    private final LongAdder iterations = new LongAdder();
+
+    /**
+     * Creates an opponent with the default budget, searching on every available core.
+     */
+    public MctsOpponent() {
+        this(new BattleService(), DEFAULT_BUDGET_NANOS, Runtime.getRuntime().availableProcessors(), DEFAULT_EXPLORATION);
+    }
+
+    /**
+     * @param battleService The service whose rules decide each round.
+     * @param budgetNanos The time allowed for one move.
+     * @param workers Threads searching each move, including the calling thread.
+     * @param exploration The UCB1 exploration constant; higher values spread visits more evenly.
+     */
+    public MctsOpponent(BattleService battleService, long budgetNanos, int workers, double exploration) {
+        this(battleService, budgetNanos, workers, exploration, 0);
+    }
+
+    private MctsOpponent(BattleService battleService, long budgetNanos, int workers, double exploration, int iterationLimit) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("At least one worker is required.");
+        }
+        this.battleService = battleService;
+        this.budgetNanos = budgetNanos;
+        this.workers = workers;
+        this.exploration = exploration;
+        this.iterationLimit = iterationLimit;
+        this.deterministicVersion = iterationLimit > 0 ? this
+                : new MctsOpponent(battleService, budgetNanos, 1, exploration, DETERMINISTIC_ITERATIONS);
+        this.executor = workers > 1 ? Executors.newFixedThreadPool(workers - 1, runnable -> {
+            Thread thread = new Thread(runnable, "mcts-worker");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    @Override
+    public int chooseCard(Hand ownHand, Hand opponentHand, int scoreMargin, RandomGenerator random) {
+        int[] ownSlots = ownHand.remainingSlots();
+        int[] opponentSlots = opponentHand.remainingSlots();
+        int n = ownSlots.length;
+        if (n != opponentSlots.length) {
+            throw new IllegalArgumentException("Both hands must hold the same number of cards.");
+        }
+        if (n > MAX_HAND_SIZE) {
+            throw new IllegalArgumentException("Hands larger than " + MAX_HAND_SIZE + " cards are not supported.");
+        }
+        if (n == 1) {
+            return ownSlots[0];
+        }
+        Search search = new Search(outcomes(ownHand, ownSlots, opponentHand, opponentSlots), scoreMargin, System.nanoTime() + budgetNanos);
+
+        List<Future<?>> helpers = new ArrayList<>(workers - 1);
+        for (int w = 1; w < workers; w++) {
+            SplittableRandom workerRandom = new SplittableRandom(random.nextLong());
+            helpers.add(executor.submit(() -> search.run(workerRandom, false)));
+        }
+        search.run(new SplittableRandom(random.nextLong()), true);
+        for (Future<?> helper : helpers) {
+            // A helper still queued behind other searches is not waited for
+            if (!helper.cancel(false)) {
+                try {
+                    helper.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Search worker failed.", e.getCause());
+                }
+            }
+        }
+        return ownSlots[search.root.mostVisitedOwn()];
+    }
+
+    /**
+     * How far a timed search gets depends on the machine and the scheduler, so the deterministic version searches
+     * a fixed number of iterations on the calling thread only.
+     */
+    @Override
+    public PlayStrategy deterministic() {
+        return deterministicVersion;
+    }
+
+    /**
+     * @return Total number of search iterations run so far, across all moves and threads.
+     */
+    public long getIterationCount() {
+        return iterations.sum();
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private int[][] outcomes(Hand ownHand, int[] ownSlots, Hand opponentHand, int[] opponentSlots) {
+        int n = ownSlots.length;
+        int[][] outcomes = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            Card own = ownHand.get(ownSlots[i]);
+            for (int j = 0; j < n; j++) {
+                Card opponent = opponentHand.get(opponentSlots[j]);
+                long outcome = battleService.evaluate(own.getAttribute().ordinal(), own.getBasePower(),
+                        opponent.getAttribute().ordinal(), opponent.getBasePower());
+                int result = BattleService.resultOf(outcome);
+                outcomes[i][j] = result == BattleService.FIRST_WINS ? 1 : result == BattleService.SECOND_WINS ? -1 : 0;
+            }
+        }
+        return outcomes;
+    }
+
+    private static double reward(int margin) {
+        return margin > 0 ? 1 : margin == 0 ? 0.5 : 0;
+    }
+
+    /**
+     * One move's search tree, shared by all threads working on it.
+     */
+    private final class Search {
+        private final int[][] outcomes;
+        private final int size;
+        private final int startMargin;
+        private final long deadline;
+        private final Node root;
+
+        Search(int[][] outcomes, int startMargin, long deadline) {
+            this.outcomes = outcomes;
+            this.size = outcomes.length;
+            this.startMargin = startMargin;
+            this.deadline = deadline;
+            this.root = new Node(size);
+        }
+
+        /**
+         * Iterates until the deadline.
+         * @param mustIterate Run at least one iteration, so the caller always has a move to return.
+         */
+        void run(SplittableRandom random, boolean mustIterate) {
+            Node[] path = new Node[size];
+            int[] ownPath = new int[size];
+            int[] opponentPath = new int[size];
+            int[] ownLeft = new int[size];
+            int[] opponentLeft = new int[size];
+            long count = 0;
+            if (mustIterate) {
+                iterate(random, path, ownPath, opponentPath, ownLeft, opponentLeft);
+                count++;
+            }
+            while (iterationLimit > 0 ? count < iterationLimit : System.nanoTime() < deadline) {
+                iterate(random, path, ownPath, opponentPath, ownLeft, opponentLeft);
+                count++;
+            }
+            iterations.add(count);
+        }
+
+        private void iterate(SplittableRandom random, Node[] path, int[] ownPath, int[] opponentPath,
+                             int[] ownLeft, int[] opponentLeft) {
+            int full = (1 << size) - 1;
+            int ownMask = full;
+            int opponentMask = full;
+            int margin = startMargin;
+            int depth = 0;
+            Node node = root;
+            double reward;
+
+            while (true) {
+                int left = size - depth;
+                if (left == 0 || margin > left || margin < -left) {
+                    reward = reward(margin);
+                    break;
+                }
+                int own;
+                int opponent;
+                Node child;
+                boolean expanded = false;
+                synchronized (node) {
+                    node.ensureStatistics();
+                    own = node.select(node.ownVisits, node.ownReward, ownMask, exploration);
+                    opponent = node.select(node.opponentVisits, node.opponentReward, opponentMask, exploration);
+                    // Virtual loss: the visit counts now, the reward only on the way back
+                    node.visits++;
+                    node.ownVisits[own]++;
+                    node.opponentVisits[opponent]++;
+                    child = node.children[own * size + opponent];
+                    if (child == null) {
+                        child = new Node(size);
+                        node.children[own * size + opponent] = child;
+                        expanded = true;
+                    }
+                }
+                path[depth] = node;
+                ownPath[depth] = own;
+                opponentPath[depth] = opponent;
+                depth++;
+                ownMask &= ~(1 << own);
+                opponentMask &= ~(1 << opponent);
+                margin += outcomes[own][opponent];
+                node = child;
+                if (expanded) {
+                    reward = reward(playout(random, ownMask, opponentMask, margin, ownLeft, opponentLeft));
+                    break;
+                }
+            }
+
+            for (int d = depth - 1; d >= 0; d--) {
+                Node visited = path[d];
+                synchronized (visited) {
+                    visited.ownReward[ownPath[d]] += reward;
+                    visited.opponentReward[opponentPath[d]] += 1 - reward;
+                }
+            }
+        }
+
+        /**
+         * Plays the remaining cards against each other in random pairs.
+         * @return The final margin.
+         */
+        private int playout(SplittableRandom random, int ownMask, int opponentMask, int margin,
+                            int[] ownLeft, int[] opponentLeft) {
+            int count = 0;
+            for (int mask = ownMask; mask != 0; mask &= mask - 1) {
+                ownLeft[count++] = Integer.numberOfTrailingZeros(mask);
+            }
+            count = 0;
+            for (int mask = opponentMask; mask != 0; mask &= mask - 1) {
+                opponentLeft[count++] = Integer.numberOfTrailingZeros(mask);
+            }
+            for (int k = count; k > 0; k--) {
+                int pick = random.nextInt(k);
+                margin += outcomes[ownLeft[k - 1]][opponentLeft[pick]];
+                opponentLeft[pick] = opponentLeft[k - 1];
+            }
+            return margin;
+        }
+    }
+
+    /**
+     * Statistics for one position. Guarded by its own monitor.
+     * Most nodes are only ever reached by the playout that created them, so the arrays are allocated on first visit.
+     */
+    private static final class Node {
+        private final int size;
+        private int[] ownVisits;
+        private double[] ownReward;
+        private int[] opponentVisits;
+        private double[] opponentReward;
+        private Node[] children; // indexed by own * size + opponent
+        private int visits;
+
+        Node(int size) {
+            this.size = size;
+        }
+
+        void ensureStatistics() {
+            if (children == null) {
+                ownVisits = new int[size];
+                ownReward = new double[size];
+                opponentVisits = new int[size];
+                opponentReward = new double[size];
+                children = new Node[size * size];
+            }
+        }
+
+        /**
+         * UCB1 over the cards still in {@code mask}; cards never tried come first.
+         */
+        int select(int[] cardVisits, double[] cardReward, int mask, double exploration) {
+            int best = -1;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            double logVisits = Math.log(visits + 1);
+            for (int m = mask; m != 0; m &= m - 1) {
+                int card = Integer.numberOfTrailingZeros(m);
+                if (cardVisits[card] == 0) {
+                    return card;
+                }
+                double score = cardReward[card] / cardVisits[card]
+                        + exploration * Math.sqrt(logVisits / cardVisits[card]);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = card;
+                }
+            }
+            return best;
+        }
+
+        synchronized int mostVisitedOwn() {
+            int best = 0;
+            if (ownVisits == null) {
+                return best;
+            }
+            for (int card = 1; card < ownVisits.length; card++) {
+                if (ownVisits[card] > ownVisits[best]) {
+                    best = card;
+                }
+            }
+            return best;
+        }
+    }
+}
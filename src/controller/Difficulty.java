@@ -0,0 +1,13 @@
+package controller;
+
+/**
+ * How strong the computer opponent plays.
+ */
+public enum Difficulty {
+    /** Plays a random card. */
+    EASY,
+    /** Searches the remaining rounds with Monte Carlo tree search. */
+    NORMAL,
+    /** Matches its hand against the player's and plays the card paired with the player's strongest. */
+    HARD
+}
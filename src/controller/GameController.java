@@ -1,42 +1,80 @@
 package controller;
 
+import ai.CardOrderSolver;
+import ai.MctsOpponent;
 import model.Card;
+import model.Hand;
 import model.Player; // Add import for Player
 import service.GachaService;
 import service.BattleService;
 import service.BattleService.BattleResult;
+import service.RandomSource;
 import database.GameRecordService;
+import replay.MatchLog;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Controller for managing the game flow, including card drawing, battles, and result tracking.
  */
 public class GameController {
+    // Shared so every controller benefits from the solver's cache
+    private static final PlayStrategy DEFAULT_COMPUTER_STRATEGY = new CardOrderSolver();
+
     private final GachaService gachaService;
     private final BattleService battleService;
+    private final RandomSource randomSource;
     private final List<Card> playerDeck = new ArrayList<>(); // total collected cards
-    private List<Card> playerCards;
-    private List<Card> computerCards;
+    private Hand playerHand;
+    private Hand computerHand;
     private int playerScore;
     private int computerScore;
     private Player currentPlayer; // Track current player for stats
+    private PlayStrategy computerStrategy = DEFAULT_COMPUTER_STRATEGY;
+    private Card lastPlayerCard;
+    private Card lastComputerCard;
+    private MatchLog matchLog;
+    private long matchId = -1; // id of the match being logged, -1 when not logging
+    private long matchSeed;
+    private SplittableRandom matchRandom; // drives the computer's choices in a seeded match, null otherwise
 
     /**
      * Constructor for GameController.
      */
     public GameController() {
-        this.gachaService = new GachaService();
-        this.battleService = new BattleService();
+        this(new GachaService(), new BattleService());
+    }
+
+    /**
+     * Constructor for GameController with specific services, e.g. for headless runs and benchmarks.
+     * @param gachaService The service used to draw cards.
+     * @param battleService The service used to resolve battles.
+     */
+    public GameController(GachaService gachaService, BattleService battleService) {
+        this(gachaService, battleService, RandomSource.threadLocal());
+    }
+
+    /**
+     * Constructor for GameController with specific services and the randomness handed to the computer's strategy.
+     * @param gachaService The service used to draw cards.
+     * @param battleService The service used to resolve battles.
+     * @param randomSource The randomness passed to the computer's play strategy.
+     */
+    public GameController(GachaService gachaService, BattleService battleService, RandomSource randomSource) {
+        this.gachaService = gachaService;
+        this.battleService = battleService;
+        this.randomSource = randomSource;
     }
 
     /**
      * Starts the game by initializing player and computer cards.
      */
     public void startGame() {
-        playerCards = new ArrayList<>();
-        computerCards = new ArrayList<>();
+        playerHand = new Hand(new ArrayList<>());
+        computerHand = new Hand(new ArrayList<>());
         playerScore = 0;
         computerScore = 0;
     }
@@ -46,7 +84,7 @@ public class GameController {
      * @return the drawn Card
      */
     public Card drawCard() {
-        Card card = gachaService.drawCards(1).get(0);
+        Card card = gachaService.drawCards(1, currentPlayer).get(0);
         playerDeck.add(card);
         return card;
     }
@@ -57,15 +95,11 @@ public class GameController {
      * @return List of drawn cards.
      */
     public List<Card> drawMultiple(int count) {
-        List<Card> cards = gachaService.drawCards(count);
+        List<Card> cards = gachaService.drawCards(count, currentPlayer);
         // Add to persistent deck
         playerDeck.addAll(cards);
-        // Set current hand
-        this.playerCards = new ArrayList<>(cards);
-        // Reset battle state
-        this.computerCards = gachaService.drawCards(count);
-        this.playerScore = 0;
-        this.computerScore = 0;
+        // Set current hand and reset battle state
+        setBattleHands(cards, gachaService.drawCards(count));
         return cards;
     }
 
@@ -81,24 +115,70 @@ public class GameController {
      * @param selectedCards The list of cards selected for battle.
      */
     public void setBattleCards(List<Card> selectedCards) {
-        this.playerCards = new ArrayList<>(selectedCards);
-        this.computerCards = gachaService.drawCards(selectedCards.size());
+        setBattleHands(selectedCards, gachaService.drawCards(selectedCards.size()));
+    }
+
+    /**
+     * Starts a seeded match: the seed alone decides the computer's hand, its powers and every choice the computer
+     * makes, so playing the same cards in the same order gives the same match every time.
+     * The computer uses the deterministic version of its strategy for the whole match.
+     * @param selectedCards The list of cards selected for battle.
+     * @param seed The match seed.
+     */
+    public void setBattleCards(List<Card> selectedCards, long seed) {
+        SplittableRandom dealRandom = new SplittableRandom(seed);
+        SplittableRandom decisionRandom = dealRandom.split();
+        startMatch(selectedCards, gachaService.drawCards(selectedCards.size(), dealRandom), seed, decisionRandom);
+    }
+
+    /**
+     * Starts a match with both hands given, e.g. when replaying a logged match.
+     * @param playerCards The player's hand.
+     * @param computerCards The computer's hand.
+     */
+    public void setBattleHands(List<Card> playerCards, List<Card> computerCards) {
+        startMatch(playerCards, computerCards, 0L, null);
+    }
+
+    private void startMatch(List<Card> playerCards, List<Card> computerCards, long seed, SplittableRandom decisionRandom) {
+        this.playerHand = new Hand(playerCards);
+        this.computerHand = new Hand(computerCards);
         this.playerScore = 0;
         this.computerScore = 0;
+        this.matchSeed = seed;
+        this.matchRandom = decisionRandom;
+        if (matchLog != null) {
+            matchId = matchLog.startMatch(seed, decisionRandom != null, playerHand, computerHand);
+        }
     }
 
     /**
      * Conducts a single round of battle.
-     * @param playerCardIndex The index of the card chosen by the player.
+     * @param playerCardIndex The index of the card chosen by the player among the cards not played yet.
      * @return The result of the battle.
      */
     public BattleResult playRound(int playerCardIndex) {
-        if (playerCardIndex < 0 || playerCardIndex >= playerCards.size()) {
+        return playSlot(playerHand.slotOf(playerCardIndex));
+    }
+
+    /**
+     * Conducts a single round of battle.
+     * @param playerSlot The hand slot of the card chosen by the player.
+     * @return The result of the battle.
+     */
+    public BattleResult playSlot(int playerSlot) {
+        if (playerSlot < 0 || playerSlot >= playerHand.capacity() || playerHand.isPlayed(playerSlot)) {
             throw new IllegalArgumentException("Invalid card index.");
         }
 
-        Card playerCard = playerCards.remove(playerCardIndex);
-        Card computerCard = computerCards.remove(0); // Computer always picks the first card
+        // The computer chooses without knowing the player's pick
+        PlayStrategy strategy = matchRandom != null ? computerStrategy.deterministic() : computerStrategy;
+        RandomGenerator random = matchRandom != null ? matchRandom : randomSource.current();
+        int computerSlot = strategy.chooseCard(computerHand.copy(), playerHand.copy(), computerScore - playerScore, random);
+        Card playerCard = playerHand.play(playerSlot);
+        Card computerCard = computerHand.play(computerSlot);
+        lastPlayerCard = playerCard;
+        lastComputerCard = computerCard;
 
         BattleResult result = battleService.fight(playerCard, computerCard);        if (result.getWinner() == playerCard) {
             playerScore++;
@@ -112,6 +192,14 @@ public class GameController {
             addCurrency(1);
         }
 
+        if (matchId >= 0) {
+            matchLog.recordRound(matchId, playerHand.getPlayedCount() - 1, playerSlot, computerSlot,
+                    battleService.fightPacked(playerCard, computerCard));
+            if (playerHand.isEmpty()) {
+                matchLog.endMatch(matchId, playerScore, computerScore);
+                matchId = -1;
+            }
+        }
         return result;
     }
 
@@ -147,12 +235,109 @@ public class GameController {
         }
     }
 
+    /**
+     * @return The player's cards not played yet.
+     */
     public List<Card> getPlayerCards() {
-        return playerCards;
+        return playerHand.remaining();
     }
 
+    /**
+     * @return The computer's cards not played yet.
+     */
     public List<Card> getComputerCards() {
-        return computerCards;
+        return computerHand.remaining();
+    }
+
+    /**
+     * @return A snapshot of the player's hand.
+     */
+    public Hand getPlayerHand() {
+        return playerHand.copy();
+    }
+
+    /**
+     * @return A snapshot of the computer's hand.
+     */
+    public Hand getComputerHand() {
+        return computerHand.copy();
+    }
+
+    /**
+     * @return Whether the current match was started with a seed.
+     */
+    public boolean isSeeded() {
+        return matchRandom != null;
+    }
+
+    /**
+     * @return The seed of the current match; only meaningful when {@link #isSeeded()}.
+     */
+    public long getMatchSeed() {
+        return matchSeed;
+    }
+
+    /**
+     * @return The number of rounds played in the current match.
+     */
+    public int getRoundsPlayed() {
+        return playerHand.getPlayedCount();
+    }
+
+    /**
+     * @return The card the player played in the most recent round, or null before the first round.
+     */
+    public Card getLastPlayerCard() {
+        return lastPlayerCard;
+    }
+
+    /**
+     * @return The card the computer played in the most recent round, or null before the first round.
+     */
+    public Card getLastComputerCard() {
+        return lastComputerCard;
+    }
+
+    /**
+     * Sets the computer's strategy to the one for a difficulty level.
+     * Until a difficulty is set, the computer plays as on {@link Difficulty#HARD}.
+     * @param difficulty The difficulty level.
+     */
+    public void setDifficulty(Difficulty difficulty) {
+        switch (difficulty) {
+            case EASY:
+                setComputerStrategy(PlayStrategy.RANDOM);
+                break;
+            case NORMAL:
+                setComputerStrategy(MctsOpponentHolder.INSTANCE);
+                break;
+            case HARD:
+                setComputerStrategy(DEFAULT_COMPUTER_STRATEGY);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown difficulty: " + difficulty);
+        }
+    }
+
+    /**
+     * Sets how the computer picks its card each round.
+     * @param computerStrategy The strategy to use from the next round on.
+     */
+    public void setComputerStrategy(PlayStrategy computerStrategy) {
+        this.computerStrategy = computerStrategy;
+    }
+
+    public PlayStrategy getComputerStrategy() {
+        return computerStrategy;
+    }
+
+    /**
+     * Sets the log every match started from now on is recorded to.
+     * @param matchLog The log, or null to stop recording.
+     */
+    public void setMatchLog(MatchLog matchLog) {
+        this.matchLog = matchLog;
+        this.matchId = -1;
     }
 
     public int getPlayerScore() {
@@ -211,4 +396,9 @@ public class GameController {
     public Player getCurrentPlayer() {
         return currentPlayer;
     }
+
+    // Created on first use so its worker threads only start when someone plays on normal
+    private static final class MctsOpponentHolder {
+        static final MctsOpponent INSTANCE = new MctsOpponent();
+    }
 }
\ No newline at end of file
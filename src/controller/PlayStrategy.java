@@ -0,0 +1,59 @@
+package controller;
+
+import model.Hand;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Decides which card a side plays in a round.
+ * Both hands are visible, but not the card the opponent picks this round: both sides choose simultaneously.
+ * The hands passed in are snapshots, so a strategy may play cards on them while searching.
+ */
+@FunctionalInterface
+public interface PlayStrategy {
+
+    /**
+     * Always plays the lowest remaining slot; the computer's original behaviour.
+     */
+    PlayStrategy FIRST = (ownHand, opponentHand, scoreMargin, random) ->
+            Integer.numberOfTrailingZeros(ownHand.remainingMask());
+
+    /**
+     * Plays a uniformly random remaining card.
+     */
+    PlayStrategy RANDOM = (ownHand, opponentHand, scoreMargin, random) ->
+            ownHand.slotOf(random.nextInt(ownHand.size()));
+
+    /**
+     * Plays the remaining card with the highest base power.
+     */
+    PlayStrategy STRONGEST = (ownHand, opponentHand, scoreMargin, random) -> {
+        int best = -1;
+        for (int mask = ownHand.remainingMask(); mask != 0; mask &= mask - 1) {
+            int slot = Integer.numberOfTrailingZeros(mask);
+            if (best < 0 || ownHand.get(slot).getBasePower() > ownHand.get(best).getBasePower()) {
+                best = slot;
+            }
+        }
+        return best;
+    };
+
+    /**
+     * Chooses the card to play this round.
+     * @param ownHand This side's hand.
+     * @param opponentHand The opponent's hand.
+     * @param scoreMargin This side's round wins minus the opponent's so far.
+     * @param random Source of randomness for strategies that need it.
+     * @return The slot in {@code ownHand} of the card to play; it must not have been played yet.
+     */
+    int chooseCard(Hand ownHand, Hand opponentHand, int scoreMargin, RandomGenerator random);
+
+    /**
+     * Returns the strategy used in seeded matches, which must choose the same card whenever it sees the same hands,
+     * margin and random sequence. Strategies whose choices depend on wall-clock time or thread scheduling override this.
+     * @return A deterministic version of this strategy.
+     */
+    default PlayStrategy deterministic() {
+        return this;
+    }
+}
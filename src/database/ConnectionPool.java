@@ -0,0 +1,235 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A small pool of long-lived SQLite connections: one writer and a fixed number of read-only readers.
+ * <p>
+ * SQLite allows a single writer at a time, so writes queue for the writer connection instead of contending for the
+ * database lock, while reads run in parallel on the readers. The database is switched to WAL mode so readers are not
+ * blocked by the writer. Connection settings are applied once, when the pool opens its connections:
+ * {@code synchronous=NORMAL} (safe in WAL mode, no fsync per commit), a memory-mapped I/O window and a page cache.
+ */
+public class ConnectionPool implements AutoCloseable {
+    private static final long ACQUIRE_TIMEOUT_SECONDS = 30;
+    private static final long MMAP_SIZE = 256L * 1024 * 1024;
+    private static final int CACHE_SIZE_KIB = 16 * 1024;
+    private static final int BUSY_TIMEOUT_MILLIS = 5000;
+
+    private static final Map<String, ConnectionPool> SHARED = new ConcurrentHashMap<>();
+
+    private final String url;
+    private final BlockingQueue<PooledConnection> writer = new ArrayBlockingQueue<>(1);
+    private final BlockingQueue<PooledConnection> readers;
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+    private final ThreadLocal<int[]> heldCount = ThreadLocal.withInitial(() -> new int[1]);
+    private WriteBehindQueue writeBehind; // guarded by this
+    private volatile boolean closed;
+
+    /**
+     * Opens a pool.
+     * @param url The JDBC URL of the database.
+     * @param readerCount The number of read-only connections.
+     * @throws SQLException If a connection cannot be opened or configured.
+     */
+    public ConnectionPool(String url, int readerCount) throws SQLException {
+        if (readerCount < 1) {
+            throw new IllegalArgumentException("At least one reader is required.");
+        }
+        this.url = url;
+        this.readers = new ArrayBlockingQueue<>(readerCount);
+        try {
+            // The writer goes first so the database is in WAL mode before any reader opens it
+            writer.add(new PooledConnection(this, open(false), false));
+            for (int i = 0; i < readerCount; i++) {
+                readers.add(new PooledConnection(this, open(true), true));
+            }
+        } catch (SQLException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the pool shared by everyone using the same database, opening it on first use.
+     * Shared pools are closed when the JVM shuts down.
+     * @param url The JDBC URL of the database.
+     * @return The shared pool.
+     * @throws SQLException If the pool cannot be opened.
+     */
+    public static ConnectionPool shared(String url) throws SQLException {
+        ConnectionPool pool = SHARED.get(url);
+        if (pool != null) {
+            return pool;
+        }
+        synchronized (SHARED) {
+            pool = SHARED.get(url);
+            if (pool == null) {
+                pool = new ConnectionPool(url, Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())));
+                ConnectionPool opened = pool;
+                Runtime.getRuntime().addShutdownHook(new Thread(opened::close, "db-pool-shutdown"));
+                SHARED.put(url, pool);
+            }
+            return pool;
+        }
+    }
+
+    /**
+     * Borrows the writer connection, waiting while another thread holds it.
+     * Close the returned connection to give it back.
+     * @return The writer connection.
+     * @throws SQLException If the pool is closed or the wait times out.
+     */
+    public PooledConnection writer() throws SQLException {
+        return acquire(writer);
+    }
+
+    /**
+     * Borrows a read-only connection. Close the returned connection to give it back.
+     * @return A reader connection.
+     * @throws SQLException If the pool is closed or the wait times out.
+     */
+    public PooledConnection reader() throws SQLException {
+        return acquire(readers);
+    }
+
+    /**
+     * Returns the queue that applies this pool's deferred writes, starting its writer thread on first use.
+     * Closing the pool commits whatever is still queued before the connections close.
+     * @return The write-behind queue.
+     */
+    public synchronized WriteBehindQueue writeBehind() {
+        if (writeBehind == null) {
+            writeBehind = new WriteBehindQueue(this);
+        }
+        return writeBehind;
+    }
+
+    private PooledConnection acquire(BlockingQueue<PooledConnection> queue) throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed.");
+        }
+        try {
+            PooledConnection connection = queue.poll(ACQUIRE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (connection == null) {
+                throw new SQLException("Timed out waiting for a database connection.");
+            }
+            connection.markBorrowed();
+            heldCount.get()[0]++;
+            return connection;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+    }
+
+    /**
+     * @return Whether the calling thread has borrowed a connection from this pool and not given it back yet.
+     *         Such a thread must not wait for the {@link #writeBehind()} queue, whose writer may need that connection.
+     */
+    public boolean isHeldByCurrentThread() {
+        return heldCount.get()[0] > 0;
+    }
+
+    /**
+     * @return How many statement lookups were served from a connection's statement cache.
+     */
+    public long getStatementCacheHits() {
+        return statementHits.sum();
+    }
+
+    /**
+     * @return How many statement lookups had to prepare the statement.
+     */
+    public long getStatementCacheMisses() {
+        return statementMisses.sum();
+    }
+
+    void recordStatementHit() {
+        statementHits.increment();
+    }
+
+    void recordStatementMiss() {
+        statementMisses.increment();
+    }
+
+    /**
+     * Takes a connection back. An unfinished transaction is rolled back; a broken connection is replaced.
+     */
+    void release(PooledConnection connection) {
+        int[] held = heldCount.get();
+        if (held[0] > 0) {
+            held[0]--;
+        }
+        try {
+            Connection raw = connection.getRawConnection();
+            if (raw.isClosed()) {
+                connection.replace(open(connection.isReadOnly()));
+            } else if (!raw.getAutoCommit()) {
+                raw.rollback();
+                raw.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("[DB] Error resetting pooled connection: " + e.getMessage());
+            e.printStackTrace();
+        }
+        if (closed) {
+            connection.closeQuietly();
+        } else {
+            (connection.isReadOnly() ? readers : writer).add(connection);
+        }
+    }
+
+    private Connection open(boolean readOnly) throws SQLException {
+        Connection connection = DriverManager.getConnection(url);
+        try (Statement statement = connection.createStatement()) {
+            if (!readOnly) {
+                statement.execute("PRAGMA journal_mode=WAL;");
+            }
+            statement.execute("PRAGMA synchronous=NORMAL;");
+            statement.execute("PRAGMA mmap_size=" + MMAP_SIZE + ";");
+            statement.execute("PRAGMA cache_size=-" + CACHE_SIZE_KIB + ";");
+            statement.execute("PRAGMA busy_timeout=" + BUSY_TIMEOUT_MILLIS + ";");
+            if (readOnly) {
+                statement.execute("PRAGMA query_only=ON;");
+            }
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return connection;
+    }
+
+    /**
+     * Commits queued writes, then closes every idle connection; connections still borrowed are closed when they
+     * are given back.
+     */
+    @Override
+    public void close() {
+        WriteBehindQueue queued;
+        synchronized (this) {
+            queued = writeBehind;
+        }
+        if (queued != null) {
+            queued.close();
+        }
+        closed = true;
+        PooledConnection connection;
+        while ((connection = readers.poll()) != null) {
+            connection.closeQuietly();
+        }
+        while ((connection = writer.poll()) != null) {
+            connection.closeQuietly();
+        }
+    }
+}
@@ -15,6 +15,8 @@ public class GameRecordService {
     private static final String DB_FILENAME = "game_records.db";
     // 動態計算應用程式所在的資料夾，並定位 data 子目錄
     public static final String DB_URL;
+    // 資料目錄，供資料庫以外的檔案（例如對戰紀錄）共用
+    public static final Path DATA_DIR;
     static {
         try {
             // 取得程式碼（jar 或 exe）位置
@@ -30,6 +32,7 @@ public class GameRecordService {
                 Files.createDirectories(dataDir);
                 System.out.println("[DB] Created data directory at " + dataDir.toAbsolutePath());
             }
+            DATA_DIR = dataDir;
             Path dbFile = dataDir.resolve(DB_FILENAME);
             DB_URL = "jdbc:sqlite:" + dbFile.toAbsolutePath();
         } catch (Exception e) {
@@ -37,13 +40,75 @@ public class GameRecordService {
         }
     }
 
+    private static final String INSERT_RECORD_SQL = "INSERT INTO record (username, player_name, wins, losses) VALUES (?, ?, ?, ?);";
+    private static final String UPDATE_PLAYER_SQL = "UPDATE players SET level = ?, xp = ?, currency = ?, rating = ?, pity_ssr = ?, pity_sr = ? WHERE username = ?";
+    private static final String INSERT_PLAYER_SQL = "INSERT INTO players (username, password, level, xp, currency, rating, pity_ssr, pity_sr) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_DECK_CARD_SQL =
+            "INSERT INTO deck (username, card_name, attribute, rarity, type, description, base_power) VALUES (?, ?, ?, ?, ?, ?, ?);";
+
+    // 資料表結構的升級步驟，依序套用；版本 n 為第 n 個步驟。只能在尾端新增，不可修改已發布的步驟
+    private static final String[][] SCHEMA_UPGRADES = {
+        // 1: 依使用者查詢時走索引，不再全表掃描。紀錄索引涵蓋查詢用到的欄位並依時間排序，查詢不需回表也不需排序
+        {
+            "CREATE INDEX IF NOT EXISTS idx_record_username_timestamp ON record (username, timestamp DESC, player_name, wins, losses);",
+            "CREATE INDEX IF NOT EXISTS idx_deck_username ON deck (username);",
+            "ANALYZE;"
+        },
+    };
+
+    // 資料庫連線一律向共用的連線池借用：寫入使用唯一的寫入連線，查詢使用唯讀連線
+    // 借用前先等待背景佇列中的寫入完成，確保讀到（或覆寫）的是最新資料
+    // 已持有連線的執行緒不會等待（flush 直接返回），否則寫入執行緒可能正等著這條連線而互相卡住
+    private static PooledConnection writer() throws SQLException {
+        ConnectionPool pool = ConnectionPool.shared(DB_URL);
+        pool.writeBehind().flush();
+        return pool.writer();
+    }
+
+    private static PooledConnection reader() throws SQLException {
+        ConnectionPool pool = ConnectionPool.shared(DB_URL);
+        pool.writeBehind().flush();
+        return pool.reader();
+    }
+
+    // 對戰紀錄、玩家資料與卡片寫入交由背景執行緒批次提交，呼叫端不必等待磁碟
+    private static WriteBehindQueue writes() throws SQLException {
+        return ConnectionPool.shared(DB_URL).writeBehind();
+    }
+
+    /**
+     * Sets who is told about background writes (records, player stats, deck cards) that could not be committed.
+     * The queue is shared by every service on the same database, so the last listener set receives all failures.
+     * @param listener The listener, or {@link WriteFailureListener#NONE}.
+     */
+    public void setWriteFailureListener(WriteFailureListener listener) {
+        try {
+            writes().setFailureListener(listener);
+        } catch (SQLException e) {
+            System.err.println("[DB] Error setting write failure listener: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Waits until every queued write has been committed.
+     */
+    public void flush() {
+        try {
+            writes().flush();
+        } catch (SQLException e) {
+            System.err.println("[DB] Error flushing queued writes: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Initializes the database by creating the necessary tables if they don't exist.
      * Also ensures the default admin account exists.
      */
     public GameRecordService() {
         System.out.println("[DB] Using DB URL: " + DB_URL);
-        try (Connection connection = DriverManager.getConnection(DB_URL);
+        try (PooledConnection connection = writer();
              Statement statement = connection.createStatement()) {
 
             // 檢查所有必要的資料表是否已存在
@@ -52,6 +117,7 @@ public class GameRecordService {
             if (rs.next()) {
                 recordTableExists = true;
             }
+            rs.close(); // 未關閉的查詢會讓寫入連線無法執行 checkpoint
 
             if (!recordTableExists) {
                 statement.execute("CREATE TABLE IF NOT EXISTS record (" +
@@ -73,6 +139,7 @@ public class GameRecordService {
             if (rs.next()) {
                 playersTableExists = true;
             }
+            rs.close();
 
             if (!playersTableExists) {
                 // Create players table with password, level, xp, currency, rating
@@ -82,7 +149,9 @@ public class GameRecordService {
                         "level INTEGER DEFAULT 1, " +
                         "xp INTEGER DEFAULT 0, " +
                         "currency INTEGER DEFAULT 1000, " +
-                        "rating INTEGER DEFAULT 1000" +
+                        "rating INTEGER DEFAULT 1000, " +
+                        "pity_ssr INTEGER DEFAULT 0, " +
+                        "pity_sr INTEGER DEFAULT 0" +
                         ");");
                 System.out.println("[DB] 'players' table created with password column.");
             } else {
@@ -93,6 +162,8 @@ public class GameRecordService {
                 try { statement.execute("ALTER TABLE players ADD COLUMN xp INTEGER DEFAULT 0"); System.out.println("[DB] Added missing column 'xp' to players"); } catch (SQLException ignored) {}
                 try { statement.execute("ALTER TABLE players ADD COLUMN currency INTEGER DEFAULT 1000"); System.out.println("[DB] Added missing column 'currency' to players"); } catch (SQLException ignored) {}
                 try { statement.execute("ALTER TABLE players ADD COLUMN rating INTEGER DEFAULT 1000"); System.out.println("[DB] Added missing column 'rating' to players"); } catch (SQLException ignored) {}
+                try { statement.execute("ALTER TABLE players ADD COLUMN pity_ssr INTEGER DEFAULT 0"); System.out.println("[DB] Added missing column 'pity_ssr' to players"); } catch (SQLException ignored) {}
+                try { statement.execute("ALTER TABLE players ADD COLUMN pity_sr INTEGER DEFAULT 0"); System.out.println("[DB] Added missing column 'pity_sr' to players"); } catch (SQLException ignored) {}
             }
 
             // 檢查 deck 資料表是否已存在
@@ -101,6 +172,7 @@ public class GameRecordService {
             if (rs.next()) {
                 deckTableExists = true;
             }
+            rs.close();
 
             if (!deckTableExists) {
                 statement.execute("CREATE TABLE IF NOT EXISTS deck (" +
@@ -121,29 +193,53 @@ public class GameRecordService {
             // 確保管理員帳號存在
             statement.execute("INSERT OR IGNORE INTO players (username, password) VALUES ('admin', 'admin');");
             System.out.println("[DB] Admin account ensured.");
+
+            upgradeSchema(connection, statement);
         } catch (SQLException e) {
             System.err.println("Error initializing database: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
+    /**
+     * Applies the schema upgrades the database has not seen yet, each in its own transaction.
+     * The number of upgrades applied is kept in {@code PRAGMA user_version}.
+     */
+    private static void upgradeSchema(PooledConnection connection, Statement statement) throws SQLException {
+        int version;
+        try (ResultSet rs = statement.executeQuery("PRAGMA user_version;")) {
+            version = rs.next() ? rs.getInt(1) : 0;
+        }
+        for (int next = version + 1; next <= SCHEMA_UPGRADES.length; next++) {
+            connection.setAutoCommit(false);
+            try {
+                for (String sql : SCHEMA_UPGRADES[next - 1]) {
+                    statement.execute(sql);
+                }
+                statement.execute("PRAGMA user_version = " + next + ";");
+                connection.commit();
+                System.out.println("[DB] Schema upgraded to version " + next + ".");
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
     /**
      * Saves a game record to the database, binding it to a specific username.
+     * The record is written in the background; reads through this service see it.
      * @param username The username associated with the record.
      * @param playerName The name of the player.
      * @param wins The number of wins.
      * @param losses The number of losses.
      */
     public void saveRecord(String username, String playerName, int wins, int losses) {
-        String insertSQL = "INSERT INTO record (username, player_name, wins, losses) VALUES (?, ?, ?, ?);";
-        try (Connection connection = DriverManager.getConnection(DB_URL);
-             PreparedStatement preparedStatement = connection.prepareStatement(insertSQL)) {
-            preparedStatement.setString(1, username);
-            preparedStatement.setString(2, playerName);
-            preparedStatement.setInt(3, wins);
-            preparedStatement.setInt(4, losses);
-            preparedStatement.executeUpdate();
-            System.out.println("[DB] Record saved: Username=" + username + ", PlayerName=" + playerName + ", Wins=" + wins + ", Losses=" + losses);
+        try {
+            writes().submit(new RecordInsert(username, playerName, wins, losses));
+            System.out.println("[DB] Record queued: Username=" + username + ", PlayerName=" + playerName + ", Wins=" + wins + ", Losses=" + losses);
         } catch (SQLException e) {
             System.err.println("[DB] Error saving record: " + e.getMessage());
             e.printStackTrace();
@@ -157,8 +253,8 @@ public class GameRecordService {
     public void printAllRecords(String username) {
         System.out.println("[DB] Checking records for username: " + username);
         String querySQL = "SELECT * FROM record WHERE username = ? ORDER BY timestamp DESC;";
-        try (Connection connection = DriverManager.getConnection(DB_URL);
-             PreparedStatement preparedStatement = connection.prepareStatement(querySQL)) {
+        try (PooledConnection connection = reader()) {
+            PreparedStatement preparedStatement = connection.prepare(querySQL);
             preparedStatement.setString(1, username);
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 boolean hasRecords = false;
@@ -191,9 +287,9 @@ public class GameRecordService {
     public boolean registerUser(String username, String password) {
         String checkUserSQL = "SELECT username FROM players WHERE username = ?";
         String insertUserSQL = "INSERT INTO players (username, password) VALUES (?, ?)";
-        try (Connection connection = DriverManager.getConnection(DB_URL);
-             PreparedStatement checkStmt = connection.prepareStatement(checkUserSQL);
-             PreparedStatement insertStmt = connection.prepareStatement(insertUserSQL)) {
+        try (PooledConnection connection = writer()) {
+            PreparedStatement checkStmt = connection.prepare(checkUserSQL);
+            PreparedStatement insertStmt = connection.prepare(insertUserSQL);
 
             System.out.println("[DB] registerUser SQL: " + checkUserSQL + ", then " + insertUserSQL);
 
@@ -210,17 +306,16 @@ public class GameRecordService {
             insertStmt.setString(1, username);
             insertStmt.setString(2, password);
             insertStmt.executeUpdate();
-            // Diagnostic: print table content after registration
-            System.out.println("[DB] After registration, players table content:");
-            checkDatabaseContent();
-            System.out.println("User registered successfully: " + username);
-            return true;
-
         } catch (SQLException e) {
             System.err.println("Error during registration: " + e.getMessage());
             e.printStackTrace();
             return false;
         }
+        // Diagnostic: print table content after registration, once the writer connection is given back
+        System.out.println("[DB] After registration, players table content:");
+        checkDatabaseContent();
+        System.out.println("User registered successfully: " + username);
+        return true;
     }
 
     /**
@@ -231,21 +326,24 @@ public class GameRecordService {
      */
     public Player loginUser(String username, String password) {
         String sql = "SELECT * FROM players WHERE username = ? AND password = ?"; // 假設密碼未加密
-        try (Connection conn = DriverManager.getConnection(DB_URL); // Fix: Use DriverManager
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PooledConnection conn = reader()) {
+            PreparedStatement pstmt = conn.prepare(sql);
             pstmt.setString(1, username);
             pstmt.setString(2, password);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                // 登入成功，創建並回傳 Player 物件
-                return new Player(
-                    rs.getString("username"), // Fix: Use username
-                    rs.getInt("level"),       // Fix: Use level
-                    rs.getInt("xp"),          // Fix: Use xp instead of experience
-                    rs.getInt("currency"),    // Fix: Use currency
-                    rs.getInt("rating")       // Fix: Use rating
-                    // 注意：如果 Player 建構子需要更多參數，請從 ResultSet 中獲取
-                );
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    // 登入成功，創建並回傳 Player 物件
+                    Player player = new Player(
+                        rs.getString("username"), // Fix: Use username
+                        rs.getInt("level"),       // Fix: Use level
+                        rs.getInt("xp"),          // Fix: Use xp instead of experience
+                        rs.getInt("currency"),    // Fix: Use currency
+                        rs.getInt("rating")       // Fix: Use rating
+                        // 注意：如果 Player 建構子需要更多參數，請從 ResultSet 中獲取
+                    );
+                    player.setPityCounters(rs.getInt("pity_ssr"), rs.getInt("pity_sr"));
+                    return player;
+                }
             }
         } catch (SQLException e) {
             System.err.println("登入時資料庫錯誤：" + e.getMessage());
@@ -259,7 +357,7 @@ public class GameRecordService {
      */
     public void checkDatabaseContent() {
         String queryPlayersSQL = "SELECT username, password, level, xp, currency, rating FROM players;";
-        try (Connection connection = DriverManager.getConnection(DB_URL);
+        try (PooledConnection connection = reader();
              Statement statement = connection.createStatement();
              ResultSet rs = statement.executeQuery(queryPlayersSQL)) {
             System.out.println("[DB Debug] Players table content:");
@@ -290,7 +388,7 @@ public class GameRecordService {
         }
 
         String deleteRecordsSQL = "DELETE FROM record;";
-        try (Connection connection = DriverManager.getConnection(DB_URL);
+        try (PooledConnection connection = writer();
              Statement statement = connection.createStatement()) {
             statement.executeUpdate(deleteRecordsSQL);
             System.out.println("All records have been cleared by admin.");
@@ -324,7 +422,7 @@ public class GameRecordService {
             return false;
         }
 
-        try (Connection connection = DriverManager.getConnection(DB_URL);
+        try (PooledConnection connection = writer();
              Statement statement = connection.createStatement()) {
             statement.executeUpdate(deleteSQL);
             System.out.println("All " + type + " have been cleared by admin.");
@@ -336,41 +434,68 @@ public class GameRecordService {
         }
     }
 
-    // 新增保存玩家卡片到資料庫的方法
+    // 新增保存玩家卡片到資料庫的方法（背景寫入）
     public void saveCardToDeck(String username, model.Card card) {
-        String insertSQL = "INSERT INTO deck (username, card_name, attribute, rarity, type, description, base_power) VALUES (?, ?, ?, ?, ?, ?, ?);";
-        try (Connection connection = DriverManager.getConnection(DB_URL);
-             PreparedStatement ps = connection.prepareStatement(insertSQL)) {
-            ps.setString(1, username);
-            ps.setString(2, card.getName());
-            ps.setString(3, card.getAttribute().name());
-            ps.setString(4, card.getRarity().name());
-            ps.setString(5, card.getType().name());
-            ps.setString(6, card.getDescription());
-            ps.setInt(7, card.getBasePower());
-            ps.executeUpdate();
-            System.out.println("[DB] Card saved to deck: " + card.getName());
+        try {
+            writes().submit(new DeckInsert(username, List.of(card)));
+            System.out.println("[DB] Card queued for deck: " + card.getName());
         } catch (SQLException e) {
             System.err.println("[DB] Error saving card to deck: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
+    /**
+     * Saves several cards to a user's deck as one batch, e.g. after a multi-pull, so the pull costs one commit
+     * instead of one per card. The cards are queued and written in the background; reads through this service
+     * see them. The batch is committed in one transaction, so either all cards are saved or none are, but that
+     * happens after this method returns: a failed commit is reported to the listener set with
+     * {@link #setWriteFailureListener}, and {@link #flush()} waits for the commit.
+     * @param username The owner of the deck.
+     * @param cards The cards to add.
+     * @return true if the cards were queued, false if they could not even be queued.
+     */
+    public boolean saveCardsToDeck(String username, List<model.Card> cards) {
+        if (cards.isEmpty()) {
+            return true;
+        }
+        try {
+            writes().submit(new DeckInsert(username, new ArrayList<>(cards)));
+            System.out.println("[DB] " + cards.size() + " cards queued for deck of " + username);
+            return true;
+        } catch (SQLException e) {
+            System.err.println("[DB] Error saving cards to deck: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static void bindDeckCard(PreparedStatement ps, String username, model.Card card) throws SQLException {
+        ps.setString(1, username);
+        ps.setString(2, card.getName());
+        ps.setString(3, card.getAttribute().name());
+        ps.setString(4, card.getRarity().name());
+        ps.setString(5, card.getType().name());
+        ps.setString(6, card.getDescription());
+        ps.setInt(7, card.getBasePower());
+    }
+
     // 新增從資料庫載入玩家卡片的方法
     public java.util.List<model.Card> loadDeck(String username) {
         java.util.List<model.Card> deck = new java.util.ArrayList<>();
         String querySQL = "SELECT * FROM deck WHERE username = ?;";
-        try (Connection connection = DriverManager.getConnection(DB_URL);
-             PreparedStatement ps = connection.prepareStatement(querySQL)) {
+        try (PooledConnection connection = reader()) {
+            PreparedStatement ps = connection.prepare(querySQL);
             ps.setString(1, username);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
                     model.Card card = new model.Card(
-                        rs.getString("card_name"),
-                        model.Attribute.valueOf(rs.getString("attribute")),
-                        model.Rarity.valueOf(rs.getString("rarity")),
-                        model.CardType.valueOf(rs.getString("type")),
-                        rs.getString("description"),
+                        resolveTemplate(
+                            rs.getString("card_name"),
+                            model.Attribute.valueOf(rs.getString("attribute")),
+                            model.Rarity.valueOf(rs.getString("rarity")),
+                            model.CardType.valueOf(rs.getString("type")),
+                            rs.getString("description")),
                         rs.getInt("base_power")
                     );
                     deck.add(card);
@@ -384,11 +509,25 @@ public class GameRecordService {
         return deck;
     }
 
+    // 取得共用的卡片模板：優先使用卡片目錄中的模板，否則使用共用池中的模板
+    private static model.CardTemplate resolveTemplate(String name, model.Attribute attribute, model.Rarity rarity,
+                                                      model.CardType type, String description) {
+        int id = service.GachaService.findTemplateId(name);
+        if (id >= 0) {
+            model.CardTemplate template = service.GachaService.getTemplate(id);
+            if (template.getAttribute() == attribute && template.getRarity() == rarity && template.getType() == type
+                    && java.util.Objects.equals(template.getDescription(), description)) {
+                return template;
+            }
+        }
+        return model.CardTemplate.intern(name, attribute, rarity, type, description);
+    }
+
     public List<String> getAllRecords(String username) {
         List<String> records = new ArrayList<>();
         String querySQL = "SELECT * FROM record WHERE username = ? ORDER BY timestamp DESC;";
-        try (Connection connection = DriverManager.getConnection(DB_URL);
-             PreparedStatement preparedStatement = connection.prepareStatement(querySQL)) {
+        try (PooledConnection connection = reader()) {
+            PreparedStatement preparedStatement = connection.prepare(querySQL);
             preparedStatement.setString(1, username);
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 while (resultSet.next()) {
@@ -408,19 +547,22 @@ public class GameRecordService {
     }
 
     public Player loadPlayerData(String username) {
-        String sql = "SELECT level, xp, currency, rating FROM players WHERE username = ?";
+        String sql = "SELECT level, xp, currency, rating, pity_ssr, pity_sr FROM players WHERE username = ?";
         System.out.println("[DB] loadPlayerData SQL: " + sql + ", user=" + username);
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PooledConnection conn = reader()) {
+            PreparedStatement pstmt = conn.prepare(sql);
             pstmt.setString(1, username);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                int level = rs.getInt("level");
-                int xp = rs.getInt("xp");
-                int currency = rs.getInt("currency");
-                int rating = rs.getInt("rating");
-                System.out.println(String.format("[DB] Loaded player %s: level=%d, xp=%d, currency=%d, rating=%d", username, level, xp, currency, rating));
-                return new Player(username, level, xp, currency, rating);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    int level = rs.getInt("level");
+                    int xp = rs.getInt("xp");
+                    int currency = rs.getInt("currency");
+                    int rating = rs.getInt("rating");
+                    System.out.println(String.format("[DB] Loaded player %s: level=%d, xp=%d, currency=%d, rating=%d", username, level, xp, currency, rating));
+                    Player player = new Player(username, level, xp, currency, rating);
+                    player.setPityCounters(rs.getInt("pity_ssr"), rs.getInt("pity_sr"));
+                    return player;
+                }
             }
         } catch (SQLException e) {
             System.err.println("Error loading player data: " + e.getMessage());
@@ -434,32 +576,20 @@ public class GameRecordService {
         return null;
     }
 
+    /**
+     * Saves a player's stats, creating the row if it does not exist. The stats are snapshotted now and written in
+     * the background; if the player is saved again before that happens, only the newer stats are written.
+     * Returning true does not mean the stats are on disk: a failed commit is reported to the listener set with
+     * {@link #setWriteFailureListener}, and {@link #flush()} waits for the commit.
+     * @param player The player to save.
+     * @return true if the stats were queued, false if they could not even be queued.
+     */
     public boolean savePlayerData(Player player) {
         if (player == null) return false;
-        String sql = "UPDATE players SET level = ?, xp = ?, currency = ?, rating = ? WHERE username = ?";
-        System.out.println(String.format("[DB] savePlayerData SQL: %s, player=%s level=%d xp=%d currency=%d rating=%d", sql,
+        System.out.println(String.format("[DB] savePlayerData SQL: %s, player=%s level=%d xp=%d currency=%d rating=%d", UPDATE_PLAYER_SQL,
                 player.getUsername(), player.getLevel(), player.getXp(), player.getCurrency(), player.getRating()));
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, player.getLevel());
-            pstmt.setInt(2, player.getXp());
-            pstmt.setInt(3, player.getCurrency());
-            pstmt.setInt(4, player.getRating());
-            pstmt.setString(5, player.getUsername());
-            int rows = pstmt.executeUpdate();
-            if (rows == 0) {
-                // No existing row updated, insert new one preserving password
-                String insert = "INSERT INTO players (username, password, level, xp, currency, rating) VALUES (?, ?, ?, ?, ?, ?)";
-                try (PreparedStatement ins = conn.prepareStatement(insert)) {
-                    ins.setString(1, player.getUsername());
-                    ins.setString(2, player.getUsername()); // fallback password to username if missing
-                    ins.setInt(3, player.getLevel());
-                    ins.setInt(4, player.getXp());
-                    ins.setInt(5, player.getCurrency());
-                    ins.setInt(6, player.getRating());
-                    ins.executeUpdate();
-                }
-            }
+        try {
+            writes().submitLatest("players:" + player.getUsername(), new PlayerUpdate(player));
             return true;
         } catch (SQLException e) {
             System.err.println("[DB] Error saving player data: " + e.getMessage());
@@ -474,9 +604,8 @@ public class GameRecordService {
     public List<Player> loadAllPlayers() {
         List<Player> players = new ArrayList<>();
         String sql = "SELECT username, level, xp, currency, rating FROM players";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+        try (PooledConnection conn = reader();
+             ResultSet rs = conn.prepare(sql).executeQuery()) {
             while (rs.next()) {
                 String user = rs.getString("username");
                 int level = rs.getInt("level");
@@ -491,4 +620,111 @@ public class GameRecordService {
         }
         return players;
     }
-}
\ No newline at end of file
+
+    // 背景寫入的資料變更：建立時即複製所需的值，稍後在寫入執行緒上套用
+
+    private static final class RecordInsert implements Mutation {
+        private final String username;
+        private final String playerName;
+        private final int wins;
+        private final int losses;
+
+        RecordInsert(String username, String playerName, int wins, int losses) {
+            this.username = username;
+            this.playerName = playerName;
+            this.wins = wins;
+            this.losses = losses;
+        }
+
+        @Override
+        public String toString() {
+            return "match record of " + username;
+        }
+
+        @Override
+        public void apply(PooledConnection connection) throws SQLException {
+            PreparedStatement preparedStatement = connection.prepare(INSERT_RECORD_SQL);
+            preparedStatement.setString(1, username);
+            preparedStatement.setString(2, playerName);
+            preparedStatement.setInt(3, wins);
+            preparedStatement.setInt(4, losses);
+            preparedStatement.executeUpdate();
+        }
+    }
+
+    private static final class PlayerUpdate implements Mutation {
+        private final String username;
+        private final int level;
+        private final int xp;
+        private final int currency;
+        private final int rating;
+        private final int pullsSinceSsr;
+        private final int pullsSinceSr;
+
+        PlayerUpdate(Player player) {
+            this.username = player.getUsername();
+            this.level = player.getLevel();
+            this.xp = player.getXp();
+            this.currency = player.getCurrency();
+            this.rating = player.getRating();
+            this.pullsSinceSsr = player.getPullsSinceSsr();
+            this.pullsSinceSr = player.getPullsSinceSr();
+        }
+
+        @Override
+        public String toString() {
+            return "player data of " + username;
+        }
+
+        @Override
+        public void apply(PooledConnection connection) throws SQLException {
+            PreparedStatement pstmt = connection.prepare(UPDATE_PLAYER_SQL);
+            pstmt.setInt(1, level);
+            pstmt.setInt(2, xp);
+            pstmt.setInt(3, currency);
+            pstmt.setInt(4, rating);
+            pstmt.setInt(5, pullsSinceSsr);
+            pstmt.setInt(6, pullsSinceSr);
+            pstmt.setString(7, username);
+            int rows = pstmt.executeUpdate();
+            if (rows == 0) {
+                // No existing row updated, insert new one preserving password
+                PreparedStatement ins = connection.prepare(INSERT_PLAYER_SQL);
+                ins.setString(1, username);
+                ins.setString(2, username); // fallback password to username if missing
+                ins.setInt(3, level);
+                ins.setInt(4, xp);
+                ins.setInt(5, currency);
+                ins.setInt(6, rating);
+                ins.setInt(7, pullsSinceSsr);
+                ins.setInt(8, pullsSinceSr);
+                ins.executeUpdate();
+            }
+        }
+    }
+
+    private static final class DeckInsert implements Mutation {
+        private final String username;
+        private final List<model.Card> cards;
+
+        DeckInsert(String username, List<model.Card> cards) {
+            this.username = username;
+            this.cards = cards;
+        }
+
+        @Override
+        public String toString() {
+            return cards.size() + " card(s) for the deck of " + username;
+        }
+
+        @Override
+        public void apply(PooledConnection connection) throws SQLException {
+            PreparedStatement ps = connection.prepare(INSERT_DECK_CARD_SQL);
+            for (model.Card card : cards) {
+                bindDeckCard(ps, username, card);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package database;
+
+import java.sql.SQLException;
+
+/**
+ * A database write queued on a {@link WriteBehindQueue}. A mutation holds a snapshot of everything it writes,
+ * taken when it was submitted, so it can be applied later on the writer thread. Its {@code toString()} describes
+ * the write for the {@link WriteFailureListener}.
+ */
+interface Mutation {
+
+    /**
+     * Applies the write. The queue decides the transaction boundaries; a mutation must not commit or roll back.
+     * @param connection The writer connection.
+     * @throws SQLException If the write fails.
+     */
+    void apply(PooledConnection connection) throws SQLException;
+}
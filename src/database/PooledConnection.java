@@ -0,0 +1,148 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A connection borrowed from a {@link ConnectionPool}. Closing it returns it to the pool instead of closing it.
+ * <p>
+ * Each connection keeps the statements it has prepared, keyed by SQL text, so SQLite parses and plans each query
+ * once per connection rather than once per call. Only the borrower uses a connection, so the cache needs no locking.
+ */
+public final class PooledConnection implements AutoCloseable {
+    private static final int MAX_CACHED_STATEMENTS = 64;
+
+    private final ConnectionPool pool;
+    private final boolean readOnly;
+    private final Map<String, PreparedStatement> statements =
+            new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() > MAX_CACHED_STATEMENTS) {
+                        closeStatement(eldest.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+    private Connection connection;
+    private boolean borrowed;
+
+    PooledConnection(ConnectionPool pool, Connection connection, boolean readOnly) {
+        this.pool = pool;
+        this.connection = connection;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Returns this connection's prepared statement for the SQL, preparing it on first use.
+     * The statement belongs to the connection: close its result sets, but never the statement itself.
+     * @param sql The SQL text; also the cache key.
+     * @return The prepared statement with its parameters and batch cleared.
+     * @throws SQLException If the statement cannot be prepared.
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement != null && !statement.isClosed()) {
+            pool.recordStatementHit();
+            statement.clearParameters();
+            // Rows left over from a batch that failed before it was executed must not run with the next one
+            statement.clearBatch();
+            return statement;
+        }
+        pool.recordStatementMiss();
+        statement = connection.prepareStatement(sql);
+        statements.put(sql, statement);
+        return statement;
+    }
+
+    /**
+     * Prepares a statement outside the cache; the caller closes it.
+     * @param sql The SQL text.
+     * @return A new prepared statement.
+     * @throws SQLException If the statement cannot be prepared.
+     */
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        return connection.prepareStatement(sql);
+    }
+
+    public Statement createStatement() throws SQLException {
+        return connection.createStatement();
+    }
+
+    public DatabaseMetaData getMetaData() throws SQLException {
+        return connection.getMetaData();
+    }
+
+    public void setAutoCommit(boolean autoCommit) throws SQLException {
+        connection.setAutoCommit(autoCommit);
+    }
+
+    public void commit() throws SQLException {
+        connection.commit();
+    }
+
+    public void rollback() throws SQLException {
+        connection.rollback();
+    }
+
+    /**
+     * @return Whether this is one of the pool's read-only connections.
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * @return The underlying JDBC connection; do not close it.
+     */
+    Connection getRawConnection() {
+        return connection;
+    }
+
+    void replace(Connection connection) {
+        statements.clear();
+        this.connection = connection;
+    }
+
+    private static void closeStatement(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            System.err.println("[DB] Error closing statement: " + e.getMessage());
+        }
+    }
+
+    void closeQuietly() {
+        for (PreparedStatement statement : statements.values()) {
+            closeStatement(statement);
+        }
+        statements.clear();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("[DB] Error closing connection: " + e.getMessage());
+        }
+    }
+
+    void markBorrowed() {
+        borrowed = true;
+    }
+
+    /**
+     * Gives the connection back to the pool. Closing it again does nothing.
+     */
+    @Override
+    public void close() {
+        if (!borrowed) {
+            return;
+        }
+        borrowed = false;
+        pool.release(this);
+    }
+}
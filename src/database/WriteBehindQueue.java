@@ -0,0 +1,369 @@
+package database;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Applies database writes on a background thread so callers never wait for the disk.
+ * <p>
+ * Callers submit mutations and return at once. A single writer thread takes whatever has queued up, waits a few
+ * milliseconds for more, and applies the whole group in one transaction on the pool's writer connection, so a burst
+ * of writes costs one commit. Mutations submitted under a key are coalesced: while one is still waiting, a newer one
+ * with the same key replaces it instead of queueing behind it, so only the last write is applied.
+ * <p>
+ * At most {@value #CAPACITY} mutations wait at a time. When the queue is full, {@link #submit} blocks until the writer
+ * catches up, so a slow disk slows callers down instead of growing memory without bound.
+ * {@link #flush()} waits until everything submitted so far is committed. {@link #close()} commits the remaining
+ * writes and checkpoints the WAL into the database file before the pool closes its connections.
+ * A write that cannot be committed is logged, counted and reported to the {@link WriteFailureListener}.
+ */
+public class WriteBehindQueue implements AutoCloseable {
+    static final int CAPACITY = 4096;
+    private static final int MAX_GROUP_SIZE = 512;
+    private static final long GROUP_COMMIT_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    // Marks the end of the queue; nothing is queued after it
+    private static final Mutation STOP = connection -> { };
+
+    private final ConnectionPool pool;
+    private final BlockingQueue<Mutation> queue = new LinkedBlockingQueue<>();
+    private final Semaphore capacity = new Semaphore(CAPACITY);
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private final ConcurrentMap<String, Mutation> latest = new ConcurrentHashMap<>();
+    private final Object progress = new Object();
+    private final Thread writerThread;
+    private final LongAdder commitCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private final AtomicLong submitted = new AtomicLong();
+    private volatile WriteFailureListener failureListener = WriteFailureListener.NONE;
+    private long completed; // guarded by progress
+    private int flushWaiters; // guarded by progress
+    private boolean closed; // guarded by closeLock
+
+    /**
+     * Stands in the queue for the newest mutation submitted under a key; the writer looks it up when it gets there.
+     */
+    private static final class Coalesced implements Mutation {
+        final String key;
+
+        Coalesced(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public void apply(PooledConnection connection) {
+            throw new IllegalStateException("Coalesced mutations are resolved before they are applied.");
+        }
+    }
+
+    /**
+     * Starts the writer thread for a pool.
+     * @param pool The pool whose writer connection the mutations are applied on.
+     */
+    WriteBehindQueue(ConnectionPool pool) {
+        this.pool = pool;
+        this.writerThread = new Thread(this::run, "db-write-behind");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Queues a write, blocking while the queue is full. After {@link #close()} the write is applied on the
+     * caller's thread instead.
+     * @param mutation The write.
+     */
+    void submit(Mutation mutation) {
+        enqueue(null, mutation);
+    }
+
+    /**
+     * Queues a write that supersedes any write with the same key still waiting in the queue.
+     * @param key Identifies what the write overwrites, e.g. a table row.
+     * @param mutation The write.
+     */
+    void submitLatest(String key, Mutation mutation) {
+        enqueue(key, mutation);
+    }
+
+    private void enqueue(String key, Mutation mutation) {
+        if (key != null && latest.replace(key, mutation) != null) {
+            // The older write has not been taken yet; its place in the queue now applies this one
+            coalescedCount.increment();
+            return;
+        }
+        try {
+            capacity.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("[DB] Interrupted while queueing a write; applying it directly.");
+            applyDirectly(mutation);
+            return;
+        }
+        closeLock.readLock().lock();
+        try {
+            if (!closed) {
+                if (key == null) {
+                    queue.add(mutation);
+                } else {
+                    while (latest.putIfAbsent(key, mutation) != null) {
+                        // Another caller queued the key meanwhile; replace fails if the writer took it since
+                        if (latest.replace(key, mutation) != null) {
+                            coalescedCount.increment();
+                            capacity.release();
+                            return;
+                        }
+                    }
+                    queue.add(new Coalesced(key));
+                }
+                submitted.incrementAndGet();
+                return;
+            }
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        capacity.release();
+        applyDirectly(mutation);
+    }
+
+    /**
+     * Waits until every write submitted before this call is committed.
+     * Returns at once on a thread that holds one of the pool's connections, since the writer may be waiting for it.
+     */
+    public void flush() {
+        if (Thread.currentThread() == writerThread || pool.isHeldByCurrentThread()) {
+            return;
+        }
+        long target = submitted.get();
+        synchronized (progress) {
+            flushWaiters++;
+            try {
+                while (completed < target && writerThread.isAlive()) {
+                    progress.wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                flushWaiters--;
+            }
+        }
+    }
+
+    /**
+     * @return The number of writes waiting to be committed.
+     */
+    public int getPendingCount() {
+        return CAPACITY - capacity.availablePermits();
+    }
+
+    /**
+     * @return The number of transactions the writer thread has committed.
+     */
+    public long getCommitCount() {
+        return commitCount.sum();
+    }
+
+    /**
+     * @return The number of writes dropped because a newer write with the same key replaced them.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    /**
+     * @return The number of writes that failed and were lost.
+     */
+    public long getFailureCount() {
+        return failureCount.sum();
+    }
+
+    /**
+     * Sets who is told about writes that could not be committed; there is one listener per queue.
+     * @param listener The listener, or {@link WriteFailureListener#NONE}.
+     */
+    public void setFailureListener(WriteFailureListener listener) {
+        this.failureListener = listener;
+    }
+
+    /**
+     * Commits every queued write, checkpoints the database and stops the writer thread.
+     * Writes submitted afterwards are applied on the caller's thread.
+     */
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(STOP);
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("[DB] Interrupted while flushing queued writes.");
+        }
+    }
+
+    private void run() {
+        List<Mutation> group = new ArrayList<>(MAX_GROUP_SIZE);
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                group.add(queue.take());
+                // Give other callers a moment to join the group, unless someone is waiting for it
+                long deadline = System.nanoTime() + GROUP_COMMIT_NANOS;
+                while (group.size() < MAX_GROUP_SIZE && group.get(group.size() - 1) != STOP) {
+                    Mutation next = queue.poll();
+                    if (next == null) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0 || hasFlushWaiters()) {
+                            break;
+                        }
+                        next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                    }
+                    group.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Only close() stops the writer; keep going until the queue is drained
+                continue;
+            }
+            if (group.get(group.size() - 1) == STOP) {
+                group.remove(group.size() - 1);
+                stopping = true;
+            }
+            int count = group.size();
+            commit(resolve(group));
+            group.clear();
+            capacity.release(count);
+            synchronized (progress) {
+                completed += count;
+                progress.notifyAll();
+            }
+        }
+        checkpoint();
+        synchronized (progress) {
+            progress.notifyAll();
+        }
+    }
+
+    private boolean hasFlushWaiters() {
+        synchronized (progress) {
+            return flushWaiters > 0;
+        }
+    }
+
+    // Swaps each coalesced placeholder for the newest write under its key
+    private List<Mutation> resolve(List<Mutation> group) {
+        List<Mutation> resolved = new ArrayList<>(group.size());
+        for (Mutation mutation : group) {
+            if (mutation instanceof Coalesced) {
+                Mutation newest = latest.remove(((Coalesced) mutation).key);
+                if (newest != null) {
+                    resolved.add(newest);
+                }
+            } else {
+                resolved.add(mutation);
+            }
+        }
+        return resolved;
+    }
+
+    private void commit(List<Mutation> group) {
+        if (group.isEmpty()) {
+            return;
+        }
+        try (PooledConnection connection = pool.writer()) {
+            try {
+                applyInTransaction(connection, group);
+                commitCount.increment();
+                return;
+            } catch (SQLException | RuntimeException e) {
+                System.err.println("[DB] Group commit of " + group.size() + " writes failed, retrying one by one: " + e.getMessage());
+            }
+            // One bad write must not take the rest of the group with it
+            for (Mutation mutation : group) {
+                try {
+                    applyInTransaction(connection, List.of(mutation));
+                    commitCount.increment();
+                } catch (SQLException | RuntimeException e) {
+                    System.err.println("[DB] Error applying queued write: " + e.getMessage());
+                    e.printStackTrace();
+                    failed(mutation, e);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("[DB] Error committing queued writes: " + e.getMessage());
+            e.printStackTrace();
+            for (Mutation mutation : group) {
+                failed(mutation, e);
+            }
+        }
+    }
+
+    private void failed(Mutation mutation, Exception cause) {
+        failureCount.increment();
+        try {
+            failureListener.writeFailed(mutation.toString(), cause);
+        } catch (RuntimeException e) {
+            // A broken listener must not stop the writer thread
+            System.err.println("[DB] Write failure listener failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private static void applyInTransaction(PooledConnection connection, List<Mutation> mutations) throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            for (Mutation mutation : mutations) {
+                mutation.apply(connection);
+            }
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    // Moves the WAL into the database file and syncs it, so everything committed survives a power loss
+    private void checkpoint() {
+        try (PooledConnection connection = pool.writer();
+             Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA wal_checkpoint(TRUNCATE);");
+        } catch (SQLException e) {
+            System.err.println("[DB] Error checkpointing database: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private void applyDirectly(Mutation mutation) {
+        try (PooledConnection connection = pool.writer()) {
+            applyInTransaction(connection, List.of(mutation));
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("[DB] Error applying write: " + e.getMessage());
+            e.printStackTrace();
+            failed(mutation, e);
+        }
+    }
+}
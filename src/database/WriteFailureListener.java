@@ -0,0 +1,22 @@
+package database;
+
+/**
+ * Told about background writes that could not be committed, so a caller that returned before the write was applied
+ * can still report the loss, e.g. in the UI.
+ */
+@FunctionalInterface
+public interface WriteFailureListener {
+
+    /**
+     * A listener that ignores failures; they are still logged.
+     */
+    WriteFailureListener NONE = (description, cause) -> { };
+
+    /**
+     * Called on the background writer thread, or on the caller's thread for writes applied after the queue closed,
+     * so implementations must not block and must hand UI work to the UI thread.
+     * @param description What was being written, e.g. "3 card(s) for the deck of alice".
+     * @param cause Why the write failed.
+     */
+    void writeFailed(String description, Exception cause);
+}
@@ -4,14 +4,11 @@ import model.CardType;
 
 /**
  * Represents a card in the game with a name, attribute, rarity, and base power.
+ * A card only stores its rolled base power; everything else is read from a shared {@link CardTemplate}.
  */
 public class Card {
-    private final String name;
-    private final Attribute attribute;
-    private final Rarity rarity;
+    private final CardTemplate template;
     private final int basePower;
-    private final CardType type;
-    private final String description;
 
     /**
      * Existing constructor for backward compatibility, defaults type and description.
@@ -34,24 +31,33 @@ public class Card {
      * @param basePower The base power of the card.
      */
     public Card(String name, Attribute attribute, Rarity rarity, CardType type, String description, int basePower) {
-        this.name = name;
-        this.attribute = attribute;
-        this.rarity = rarity;
+        this(CardTemplate.intern(name, attribute, rarity, type, description), basePower);
+    }
+
+    /**
+     * Creates a card of a shared template.
+     * @param template The template of the card.
+     * @param basePower The base power of the card.
+     */
+    public Card(CardTemplate template, int basePower) {
+        this.template = template;
         this.basePower = basePower;
-        this.type = type;
-        this.description = description;
+    }
+
+    public CardTemplate getTemplate() {
+        return template;
     }
 
     public String getName() {
-        return name;
+        return template.getName();
     }
 
     public Attribute getAttribute() {
-        return attribute;
+        return template.getAttribute();
     }
 
     public Rarity getRarity() {
-        return rarity;
+        return template.getRarity();
     }
 
     public int getBasePower() {
@@ -59,16 +65,16 @@ public class Card {
     }
 
     public CardType getType() {
-        return type;
+        return template.getType();
     }
 
     public String getDescription() {
-        return description;
+        return template.getDescription();
     }
 
     @Override
     public String toString() {
         return String.format("Card{name='%s', attribute=%s, rarity=%s, type=%s, basePower=%d}",
-                name, attribute, rarity, type, basePower);
+                getName(), getAttribute(), getRarity(), getType(), basePower);
     }
-}
\ No newline at end of file
+}
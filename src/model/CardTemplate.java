@@ -1,9 +1,17 @@
 package model;
 
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /**
  * Template class for card definitions, holding metadata loaded from game data.
+ * Templates are shared: every {@link Card} of the same kind points at one interned template.
  */
 public class CardTemplate {
+    // Canonical templates keyed by the fields a card exposes; the first template registered for a key wins
+    private static final ConcurrentMap<Key, CardTemplate> INTERNED = new ConcurrentHashMap<>();
+
     private final String name;
     private final Attribute attribute;
     private final Rarity rarity;
@@ -20,6 +28,36 @@ public class CardTemplate {
         this.imagePath = imagePath;
     }
 
+    /**
+     * Returns the canonical instance for this template's card fields, registering this one if there is none yet.
+     * @param template The template to intern.
+     * @return The shared template with the same name, attribute, rarity, type and description.
+     */
+    public static CardTemplate intern(CardTemplate template) {
+        CardTemplate existing = INTERNED.putIfAbsent(new Key(template), template);
+        return existing != null ? existing : template;
+    }
+
+    /**
+     * Looks up (or creates) the shared template for a card's fields, e.g. when loading cards from the database.
+     * @param name The name of the card.
+     * @param attribute The attribute of the card.
+     * @param rarity The rarity of the card.
+     * @param type The type of the card.
+     * @param description The description of the card.
+     * @return The shared template.
+     */
+    public static CardTemplate intern(String name, Attribute attribute, Rarity rarity, CardType type, String description) {
+        Key key = new Key(name, attribute, rarity, type, description);
+        CardTemplate existing = INTERNED.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        CardTemplate created = new CardTemplate(name, attribute, rarity, type, description, null);
+        existing = INTERNED.putIfAbsent(key, created);
+        return existing != null ? existing : created;
+    }
+
     public String getName() {
         return name;
     }
@@ -43,4 +81,42 @@ public class CardTemplate {
     public String getImagePath() {
         return imagePath;
     }
-}
\ No newline at end of file
+
+    private static final class Key {
+        private final String name;
+        private final Attribute attribute;
+        private final Rarity rarity;
+        private final CardType type;
+        private final String description;
+
+        Key(CardTemplate template) {
+            this(template.name, template.attribute, template.rarity, template.type, template.description);
+        }
+
+        Key(String name, Attribute attribute, Rarity rarity, CardType type, String description) {
+            this.name = name;
+            this.attribute = attribute;
+            this.rarity = rarity;
+            this.type = type;
+            this.description = description;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Objects.equals(name, other.name) && attribute == other.attribute && rarity == other.rarity
+                    && type == other.type && Objects.equals(description, other.description);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, attribute, rarity, type, description);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A battle hand of at most 32 cards.
+ * Cards keep their slot for the whole match and playing one only sets a bit, so playing a card and
+ * reading the round number are O(1), and a copy shares the card array and only duplicates the bitmask.
+ */
+public final class Hand {
+    /** Largest supported hand; played cards are tracked in an int. */
+    public static final int MAX_CAPACITY = Integer.SIZE;
+
+    private final Card[] cards;
+    private int playedMask;
+
+    /**
+     * Creates a hand holding the given cards, none of them played yet.
+     * @param cards The cards in slot order.
+     */
+    public Hand(List<Card> cards) {
+        if (cards.size() > MAX_CAPACITY) {
+            throw new IllegalArgumentException("A hand holds at most " + MAX_CAPACITY + " cards.");
+        }
+        this.cards = cards.toArray(new Card[0]);
+    }
+
+    private Hand(Card[] cards, int playedMask) {
+        this.cards = cards;
+        this.playedMask = playedMask;
+    }
+
+    /**
+     * @return A snapshot of this hand; playing cards on either one does not affect the other.
+     */
+    public Hand copy() {
+        return new Hand(cards, playedMask);
+    }
+
+    /**
+     * @return The number of cards the hand started with.
+     */
+    public int capacity() {
+        return cards.length;
+    }
+
+    /**
+     * @return The number of cards not played yet.
+     */
+    public int size() {
+        return cards.length - Integer.bitCount(playedMask);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return The number of cards played so far, i.e. the number of finished rounds.
+     */
+    public int getPlayedCount() {
+        return Integer.bitCount(playedMask);
+    }
+
+    /**
+     * @param slot The slot index.
+     * @return The card in the slot, whether or not it has been played.
+     */
+    public Card get(int slot) {
+        return cards[slot];
+    }
+
+    /**
+     * @param slot The slot index.
+     * @return Whether the card in the slot has been played.
+     */
+    public boolean isPlayed(int slot) {
+        return (playedMask & (1 << slot)) != 0;
+    }
+
+    /**
+     * Plays the card in a slot.
+     * @param slot The slot index.
+     * @return The card played.
+     */
+    public Card play(int slot) {
+        if (slot < 0 || slot >= cards.length || isPlayed(slot)) {
+            throw new IllegalArgumentException("Invalid card slot.");
+        }
+        playedMask |= 1 << slot;
+        return cards[slot];
+    }
+
+    /**
+     * @return A bitmask with bit {@code i} set when slot {@code i} has not been played.
+     */
+    public int remainingMask() {
+        return cards.length == 0 ? 0 : ~playedMask & (-1 >>> (Integer.SIZE - cards.length));
+    }
+
+    /**
+     * @return The slots not played yet, in ascending order.
+     */
+    public int[] remainingSlots() {
+        int[] slots = new int[size()];
+        int count = 0;
+        for (int mask = remainingMask(); mask != 0; mask &= mask - 1) {
+            slots[count++] = Integer.numberOfTrailingZeros(mask);
+        }
+        return slots;
+    }
+
+    /**
+     * Maps a position among the remaining cards, as shown to the player, to its slot.
+     * @param index The position among the cards not played yet.
+     * @return The slot index.
+     */
+    public int slotOf(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IllegalArgumentException("Invalid card index.");
+        }
+        int mask = remainingMask();
+        for (int i = 0; i < index; i++) {
+            mask &= mask - 1;
+        }
+        return Integer.numberOfTrailingZeros(mask);
+    }
+
+    /**
+     * @return The cards not played yet, in slot order.
+     */
+    public List<Card> remaining() {
+        List<Card> remaining = new ArrayList<>(size());
+        for (int mask = remainingMask(); mask != 0; mask &= mask - 1) {
+            remaining.add(cards[Integer.numberOfTrailingZeros(mask)]);
+        }
+        return remaining;
+    }
+}
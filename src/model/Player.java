@@ -11,6 +11,8 @@ public class Player {
     private List<Card> deck;
     private int xpToNextLevel; // Example: XP needed for next level
     private int rating;
+    private int pullsSinceSsr; // pity counter: gacha pulls since the last SSR
+    private int pullsSinceSr;  // pity counter: gacha pulls since the last SR or better
 
     public Player(String username, int level, int xp, int currency) {
         this(username, level, xp, currency, 1000); // default rating
@@ -64,11 +66,24 @@ public class Player {
         return xpToNextLevel;
     }
 
+    public int getPullsSinceSsr() {
+        return pullsSinceSsr;
+    }
+
+    public int getPullsSinceSr() {
+        return pullsSinceSr;
+    }
+
     // Setters
     public void setDeck(List<Card> deck) {
         this.deck = deck;
     }
 
+    public void setPityCounters(int pullsSinceSsr, int pullsSinceSr) {
+        this.pullsSinceSsr = pullsSinceSsr;
+        this.pullsSinceSr = pullsSinceSr;
+    }
+
     // Public methods to modify player stats
     public void addXp(int amount) {
         this.xp += amount;
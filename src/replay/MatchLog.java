@@ -0,0 +1,296 @@
+package replay;
+
+import model.Card;
+import model.Hand;
+import service.GachaService;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only binary log of match events, written through a memory-mapped file.
+ * <p>
+ * The file starts with an 8-byte header (magic, version). Every event is a frame of
+ * {@code [int payload length][int CRC32C of payload][payload]}, and every payload starts with
+ * {@code [byte event type][long match id]}:
+ * <ul>
+ *   <li>{@link #MATCH_START}: timestamp, seed, flags, catalog fingerprint, then both hands in slot order.
+ *       A card is its catalog template id and base power; cards outside the catalog, or with an id too large
+ *       for the id field, are written inline.</li>
+ *   <li>{@link #ROUND}: round index, both slots and the packed outcome from {@link service.BattleService#fightPacked}.</li>
+ *   <li>{@link #MATCH_END}: both scores.</li>
+ * </ul>
+ * Events of concurrent matches may interleave; the match id ties them together.
+ * The mapping grows the file a segment at a time, so the tail is zero-filled; a zero length, a truncated frame
+ * or a bad checksum marks the end of the log. Template ids refer to the card catalog the match was written with,
+ * as identified by {@link GachaService#getCatalogFingerprint()}.
+ */
+public class MatchLog implements AutoCloseable {
+    static final int MAGIC = 0x43474D4C; // "CGML"
+    static final short VERSION = 2;
+    static final int FILE_HEADER_SIZE = 8;
+    static final int FRAME_HEADER_SIZE = 8;
+    // Event type and match id, the part of a payload every event has
+    static final int EVENT_HEADER_SIZE = 9;
+
+    /** Event type: a match was dealt. */
+    public static final byte MATCH_START = 1;
+    /** Event type: a round was played. */
+    public static final byte ROUND = 2;
+    /** Event type: the last round of a match was played. */
+    public static final byte MATCH_END = 3;
+
+    static final byte FLAG_SEEDED = 1;
+    static final short INLINE_CARD = -1;
+
+    private static final int SEGMENT_SIZE = 1 << 20;
+    private static final int READ_WINDOW_SIZE = 1 << 26;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final CRC32C checksum = new CRC32C();
+    private ByteBuffer buffer = ByteBuffer.allocate(1024);
+    private MappedByteBuffer segment;
+    private long segmentStart;
+    private long position;
+    private long nextMatchId;
+
+    /**
+     * Called for every intact frame while scanning a log.
+     */
+    interface FrameVisitor {
+        /**
+         * @param payload The frame payload, positioned at the event type.
+         */
+        void visit(ByteBuffer payload);
+    }
+
+    private MatchLog(Path path, FileChannel channel, long position, long nextMatchId) {
+        this.path = path;
+        this.channel = channel;
+        this.position = position;
+        this.nextMatchId = nextMatchId;
+    }
+
+    /**
+     * Opens a log for appending, creating it if needed. Existing events are kept and match ids continue after them.
+     * @param path The log file.
+     * @return The open log.
+     * @throws IOException If the file cannot be opened or is not a match log.
+     */
+    public static MatchLog open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+                header.putInt(MAGIC).putShort(VERSION).putShort((short) 0).flip();
+                channel.write(header, 0);
+            }
+            long[] lastMatchId = {-1};
+            long end = scan(channel, payload -> lastMatchId[0] = Math.max(lastMatchId[0], payload.getLong(1)));
+            return new MatchLog(path, channel, end, lastMatchId[0] + 1);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads every intact frame of a log, in file order. Frames too short to hold an event header are passed over.
+     * @param channel The log file.
+     * @param visitor Receives each frame's payload.
+     * @return The file offset just past the last intact frame.
+     * @throws IOException If the file cannot be read or is not a match log.
+     */
+    static long scan(FileChannel channel, FrameVisitor visitor) throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        channel.read(header, 0);
+        if (size < FILE_HEADER_SIZE || header.getInt(0) != MAGIC) {
+            throw new IOException("Not a match log.");
+        }
+        if (header.getShort(4) != VERSION) {
+            throw new IOException("Unsupported match log version: " + header.getShort(4));
+        }
+
+        CRC32C checksum = new CRC32C();
+        long position = FILE_HEADER_SIZE;
+        MappedByteBuffer window = null;
+        long windowStart = 0;
+        while (position + FRAME_HEADER_SIZE <= size) {
+            if (window == null || position + FRAME_HEADER_SIZE > windowStart + window.capacity()) {
+                windowStart = position;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(READ_WINDOW_SIZE, size - windowStart));
+            }
+            int offset = (int) (position - windowStart);
+            int length = window.getInt(offset);
+            if (length <= 0 || position + FRAME_HEADER_SIZE + length > size) {
+                break;
+            }
+            if (offset + FRAME_HEADER_SIZE + length > window.capacity()) {
+                // Frame straddles the window; remap starting at it
+                windowStart = position;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+                        Math.min(Math.max(READ_WINDOW_SIZE, FRAME_HEADER_SIZE + length), size - windowStart));
+                offset = 0;
+            }
+            ByteBuffer payload = window.slice(offset + FRAME_HEADER_SIZE, length);
+            checksum.reset();
+            checksum.update(payload.duplicate());
+            if ((int) checksum.getValue() != window.getInt(offset + 4)) {
+                break;
+            }
+            // A frame too short to name its match belongs to none; the frames after it are still intact
+            if (length >= EVENT_HEADER_SIZE) {
+                visitor.visit(payload);
+            }
+            position += FRAME_HEADER_SIZE + length;
+        }
+        return position;
+    }
+
+    /**
+     * Records the start of a match.
+     * @param seed The match seed, if any.
+     * @param seeded Whether the match was played in seeded mode.
+     * @param playerHand The player's hand before the first round.
+     * @param computerHand The computer's hand before the first round.
+     * @return The id of the new match.
+     */
+    public synchronized long startMatch(long seed, boolean seeded, Hand playerHand, Hand computerHand) {
+        long matchId = nextMatchId++;
+        begin(MATCH_START, matchId, 64);
+        buffer.putLong(System.currentTimeMillis());
+        buffer.putLong(seed);
+        buffer.put(seeded ? FLAG_SEEDED : 0);
+        buffer.putInt(GachaService.getCatalogFingerprint());
+        putHand(playerHand);
+        putHand(computerHand);
+        append();
+        return matchId;
+    }
+
+    /**
+     * Records a played round.
+     * @param matchId The match id returned by {@link #startMatch}.
+     * @param round The zero-based round index.
+     * @param playerSlot The slot of the player's card.
+     * @param computerSlot The slot of the computer's card.
+     * @param outcome The packed outcome with the player's card as the first card.
+     */
+    public synchronized void recordRound(long matchId, int round, int playerSlot, int computerSlot, long outcome) {
+        begin(ROUND, matchId, 11);
+        buffer.put((byte) round);
+        buffer.put((byte) playerSlot);
+        buffer.put((byte) computerSlot);
+        buffer.putLong(outcome);
+        append();
+    }
+
+    /**
+     * Records the end of a match.
+     * @param matchId The match id returned by {@link #startMatch}.
+     * @param playerScore Rounds won by the player.
+     * @param computerScore Rounds won by the computer.
+     */
+    public synchronized void endMatch(long matchId, int playerScore, int computerScore) {
+        begin(MATCH_END, matchId, 4);
+        buffer.putShort((short) playerScore);
+        buffer.putShort((short) computerScore);
+        append();
+    }
+
+    /**
+     * Forces appended events to the storage device.
+     */
+    public synchronized void flush() {
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    /**
+     * @return The log file.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    private void begin(byte type, long matchId, int bodySize) {
+        ensureCapacity(EVENT_HEADER_SIZE + bodySize);
+        buffer.clear();
+        buffer.put(type);
+        buffer.putLong(matchId);
+    }
+
+    private void putHand(Hand hand) {
+        ensureCapacity(buffer.position() + 1 + hand.capacity() * 6);
+        buffer.put((byte) hand.capacity());
+        for (int slot = 0; slot < hand.capacity(); slot++) {
+            putCard(hand.get(slot));
+        }
+    }
+
+    private void putCard(Card card) {
+        int templateId = GachaService.findTemplateId(card.getName());
+        if (templateId >= 0 && templateId <= Short.MAX_VALUE && GachaService.getTemplate(templateId) == card.getTemplate()) {
+            buffer.putShort((short) templateId);
+        } else {
+            // Not a catalog card, e.g. a deck card whose template was changed since, or beyond the id field's range
+            byte[] name = card.getName().getBytes(StandardCharsets.UTF_8);
+            ensureCapacity(buffer.position() + 4 + name.length + 4);
+            buffer.putShort(INLINE_CARD);
+            buffer.put((byte) card.getAttribute().ordinal());
+            buffer.put((byte) card.getRarity().ordinal());
+            buffer.putShort((short) name.length);
+            buffer.put(name);
+        }
+        buffer.putInt(card.getBasePower());
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (buffer.capacity() < capacity) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(capacity, buffer.capacity() * 2));
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+    }
+
+    private void append() {
+        buffer.flip();
+        int length = buffer.remaining();
+        int frameSize = FRAME_HEADER_SIZE + length;
+        try {
+            if (segment == null || position + frameSize > segmentStart + segment.capacity()) {
+                segmentStart = position;
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, segmentStart, Math.max(SEGMENT_SIZE, frameSize));
+            }
+        } catch (IOException e) {
+            System.err.println("[MatchLog] Failed to extend " + path + ": " + e.getMessage());
+            e.printStackTrace();
+            return;
+        }
+        checksum.reset();
+        checksum.update(buffer.duplicate());
+        int offset = (int) (position - segmentStart);
+        // The length goes in last so a reader never sees a length whose payload is not there yet
+        segment.put(offset + FRAME_HEADER_SIZE, buffer, 0, length);
+        segment.putInt(offset + 4, (int) checksum.getValue());
+        segment.putInt(offset, length);
+        position += frameSize;
+    }
+}
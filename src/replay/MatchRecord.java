@@ -0,0 +1,132 @@
+package replay;
+
+import model.Card;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One match as read back from a {@link MatchLog}.
+ */
+public class MatchRecord {
+    private final long matchId;
+    private final long timestampMillis;
+    private final long seed;
+    private final boolean seeded;
+    private final List<Card> playerHand;
+    private final List<Card> computerHand;
+    private final int[] playerSlots;
+    private final int[] computerSlots;
+    private final long[] outcomes;
+    private int roundCount;
+    private int playerScore;
+    private int computerScore;
+    private boolean complete;
+
+    MatchRecord(long matchId, long timestampMillis, long seed, boolean seeded,
+                List<Card> playerHand, List<Card> computerHand) {
+        this.matchId = matchId;
+        this.timestampMillis = timestampMillis;
+        this.seed = seed;
+        this.seeded = seeded;
+        this.playerHand = Collections.unmodifiableList(playerHand);
+        this.computerHand = Collections.unmodifiableList(computerHand);
+        this.playerSlots = new int[playerHand.size()];
+        this.computerSlots = new int[playerHand.size()];
+        this.outcomes = new long[playerHand.size()];
+    }
+
+    void addRound(int round, int playerSlot, int computerSlot, long outcome) {
+        if (round != roundCount || round >= outcomes.length) {
+            throw new IllegalStateException("Match " + matchId + " has an out-of-order round " + round + ".");
+        }
+        playerSlots[round] = playerSlot;
+        computerSlots[round] = computerSlot;
+        outcomes[round] = outcome;
+        roundCount++;
+    }
+
+    void end(int playerScore, int computerScore) {
+        this.playerScore = playerScore;
+        this.computerScore = computerScore;
+        this.complete = true;
+    }
+
+    public long getMatchId() {
+        return matchId;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    /**
+     * @return The match seed; only meaningful when {@link #isSeeded()}.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    /**
+     * @return The player's hand in slot order.
+     */
+    public List<Card> getPlayerHand() {
+        return playerHand;
+    }
+
+    /**
+     * @return The computer's hand in slot order.
+     */
+    public List<Card> getComputerHand() {
+        return computerHand;
+    }
+
+    /**
+     * @return The number of rounds recorded.
+     */
+    public int getRoundCount() {
+        return roundCount;
+    }
+
+    public int getPlayerSlot(int round) {
+        return playerSlots[round];
+    }
+
+    public int getComputerSlot(int round) {
+        return computerSlots[round];
+    }
+
+    /**
+     * @param round The zero-based round index.
+     * @return The packed outcome, player first, as decoded by {@link service.BattleService#resultOf} and friends.
+     */
+    public long getOutcome(int round) {
+        return outcomes[round];
+    }
+
+    /**
+     * @return Whether the match end was recorded.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public int getPlayerScore() {
+        return playerScore;
+    }
+
+    public int getComputerScore() {
+        return computerScore;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Match %d (%s, %d rounds%s): %d - %d", matchId,
+                seeded ? "seed " + seed : "unseeded", roundCount, complete ? "" : ", unfinished",
+                playerScore, computerScore);
+    }
+}
@@ -0,0 +1,237 @@
+package replay;
+
+import controller.GameController;
+import database.GameRecordService;
+import model.Attribute;
+import model.Card;
+import model.Rarity;
+import service.BattleService;
+import service.DrawEventSink;
+import service.GachaService;
+import service.RandomSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads matches back from a {@link MatchLog} and replays them.
+ * A replay deals the recorded hands into a fresh {@link GameController} and plays the recorded slots on both sides,
+ * so every round is decided again by the current battle rules and can be checked against what was logged.
+ * For seeded matches the computer's hand is also dealt again from the seed, which assumes the standard banner.
+ */
+public class MatchReplayer {
+    private final BattleService battleService;
+
+    /**
+     * Creates a replayer using the standard battle rules.
+     */
+    public MatchReplayer() {
+        this(new BattleService());
+    }
+
+    /**
+     * @param battleService The rules the matches are replayed with.
+     */
+    public MatchReplayer(BattleService battleService) {
+        this.battleService = battleService;
+    }
+
+    /**
+     * Reads every match in a log, in the order the matches started.
+     * Events without a recorded start, e.g. after a damaged frame, are skipped, and so are matches written with
+     * a different card catalog, since their template ids may stand for other cards now. A match whose events do
+     * not decode, e.g. a round out of order or a card id the catalog does not have, is skipped as corrupt; the
+     * other matches in the log are still read.
+     * @param path The log file.
+     * @return The matches.
+     * @throws IOException If the file cannot be read or is not a match log.
+     */
+    public static List<MatchRecord> read(Path path) throws IOException {
+        Map<Long, MatchRecord> matches = new LinkedHashMap<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MatchLog.scan(channel, payload -> decode(payload, matches));
+        }
+        return new ArrayList<>(matches.values());
+    }
+
+    private static void decode(ByteBuffer payload, Map<Long, MatchRecord> matches) {
+        byte type = payload.get();
+        long matchId = payload.getLong();
+        try {
+            decode(type, matchId, payload, matches);
+        } catch (RuntimeException e) {
+            // The checksum only proves the frame is as written; one bad match must not hide the rest of the log
+            matches.remove(matchId);
+            System.err.println("[MatchLog] Skipping corrupt match " + matchId + ": " + e);
+        }
+    }
+
+    private static void decode(byte type, long matchId, ByteBuffer payload, Map<Long, MatchRecord> matches) {
+        MatchRecord record = matches.get(matchId);
+        switch (type) {
+            case MatchLog.MATCH_START:
+                long timestamp = payload.getLong();
+                long seed = payload.getLong();
+                boolean seeded = (payload.get() & MatchLog.FLAG_SEEDED) != 0;
+                if (payload.getInt() != GachaService.getCatalogFingerprint()) {
+                    System.err.println("[MatchLog] Skipping match " + matchId + ": written with a different card catalog.");
+                    break;
+                }
+                List<Card> playerHand = readHand(payload);
+                List<Card> computerHand = readHand(payload);
+                matches.put(matchId, new MatchRecord(matchId, timestamp, seed, seeded, playerHand, computerHand));
+                break;
+            case MatchLog.ROUND:
+                if (record != null) {
+                    record.addRound(payload.get(), payload.get(), payload.get(), payload.getLong());
+                }
+                break;
+            case MatchLog.MATCH_END:
+                if (record != null) {
+                    record.end(payload.getShort(), payload.getShort());
+                }
+                break;
+            default:
+                // Written by a newer version; nothing to reconstruct from it
+                break;
+        }
+    }
+
+    private static List<Card> readHand(ByteBuffer payload) {
+        int size = payload.get() & 0xFF;
+        List<Card> hand = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            short templateId = payload.getShort();
+            if (templateId == MatchLog.INLINE_CARD) {
+                Attribute attribute = Attribute.values()[payload.get()];
+                Rarity rarity = Rarity.values()[payload.get()];
+                byte[] bytes = new byte[payload.getShort()];
+                payload.get(bytes);
+                String name = new String(bytes, StandardCharsets.UTF_8);
+                int id = GachaService.findTemplateId(name);
+                // Catalog cards whose id did not fit the id field are written inline too
+                if (id >= 0 && GachaService.getTemplate(id).getAttribute() == attribute
+                        && GachaService.getTemplate(id).getRarity() == rarity) {
+                    hand.add(new Card(GachaService.getTemplate(id), payload.getInt()));
+                } else {
+                    hand.add(new Card(name, attribute, rarity, payload.getInt()));
+                }
+            } else {
+                hand.add(new Card(GachaService.getTemplate(templateId), payload.getInt()));
+            }
+        }
+        return hand;
+    }
+
+    /**
+     * Replays a match.
+     * @param record The match to replay.
+     * @return The controller after the last recorded round, holding the reconstructed scores.
+     */
+    public GameController replay(MatchRecord record) {
+        return play(record, null);
+    }
+
+    /**
+     * Replays a match and checks it against the log.
+     * @param record The match to replay.
+     * @return Whether every round and, for finished matches, the final score came out as recorded,
+     *         and for seeded matches whether the seed deals the recorded computer hand.
+     */
+    public boolean verify(MatchRecord record) {
+        if (record.isSeeded() && !dealsRecordedHand(record)) {
+            return false;
+        }
+        boolean[] consistent = {true};
+        GameController controller = play(record, consistent);
+        if (record.isComplete() && (controller.getPlayerScore() != record.getPlayerScore()
+                || controller.getComputerScore() != record.getComputerScore())) {
+            return false;
+        }
+        return consistent[0];
+    }
+
+    private boolean dealsRecordedHand(MatchRecord record) {
+        GameController dealer = newController();
+        dealer.setBattleCards(record.getPlayerHand(), record.getSeed());
+        List<Card> dealt = dealer.getComputerCards();
+        List<Card> recorded = record.getComputerHand();
+        if (dealt.size() != recorded.size()) {
+            return false;
+        }
+        for (int i = 0; i < dealt.size(); i++) {
+            if (dealt.get(i).getTemplate() != recorded.get(i).getTemplate()
+                    || dealt.get(i).getBasePower() != recorded.get(i).getBasePower()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private GameController newController() {
+        return new GameController(new GachaService(RandomSource.threadLocal(), DrawEventSink.NONE), battleService);
+    }
+
+    private GameController play(MatchRecord record, boolean[] consistent) {
+        GameController controller = newController();
+        int[] round = {0};
+        controller.setComputerStrategy((ownHand, opponentHand, scoreMargin, random) -> record.getComputerSlot(round[0]));
+        controller.setBattleHands(record.getPlayerHand(), record.getComputerHand());
+        for (; round[0] < record.getRoundCount(); round[0]++) {
+            controller.playSlot(record.getPlayerSlot(round[0]));
+            if (consistent != null) {
+                long outcome = battleService.fightPacked(controller.getLastPlayerCard(), controller.getLastComputerCard());
+                if (outcome != record.getOutcome(round[0])) {
+                    consistent[0] = false;
+                }
+            }
+        }
+        return controller;
+    }
+
+    /**
+     * Lists the matches in a log, or prints the rounds of one match.
+     * @param args Optional log file (default {@code matches.log} in the data directory) and match id.
+     */
+    public static void main(String[] args) throws IOException {
+        Path path = args.length > 0 ? Path.of(args[0]) : GameRecordService.DATA_DIR.resolve("matches.log");
+        List<MatchRecord> records = read(path);
+        MatchReplayer replayer = new MatchReplayer();
+        if (args.length < 2) {
+            for (MatchRecord record : records) {
+                System.out.println(record + (replayer.verify(record) ? "" : "  [MISMATCH]"));
+            }
+            System.out.println(records.size() + " matches in " + path);
+            return;
+        }
+
+        long matchId = Long.parseLong(args[1]);
+        for (MatchRecord record : records) {
+            if (record.getMatchId() != matchId) {
+                continue;
+            }
+            System.out.println(record);
+            for (int round = 0; round < record.getRoundCount(); round++) {
+                Card playerCard = record.getPlayerHand().get(record.getPlayerSlot(round));
+                Card computerCard = record.getComputerHand().get(record.getComputerSlot(round));
+                long outcome = record.getOutcome(round);
+                int result = BattleService.resultOf(outcome);
+                System.out.printf("  Round %d: %s (%d) vs %s (%d) -> %s%n", round + 1,
+                        playerCard.getName(), BattleService.firstPowerOf(outcome),
+                        computerCard.getName(), BattleService.secondPowerOf(outcome),
+                        result == BattleService.FIRST_WINS ? "Player" : result == BattleService.SECOND_WINS ? "Computer" : "Draw");
+            }
+            System.out.println(replayer.verify(record) ? "Replay matches the log." : "Replay does NOT match the log.");
+            return;
+        }
+        System.out.println("No match " + matchId + " in " + path);
+    }
+}
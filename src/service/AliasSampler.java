@@ -0,0 +1,130 @@
+package service;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted sampler using Vose's alias method.
+ * Building the table is O(n); every sample costs one random int, one multiply and one comparison,
+ * regardless of how many outcomes there are. Instances are immutable and safe to share between threads.
+ */
+public final class AliasSampler {
+    private static final long ONE = 1L << 32;
+
+    private final int[] alias;
+    private final long[] threshold; // acceptance threshold scaled to [0, 2^32]
+    private final double[] probabilities;
+
+    /**
+     * Builds a sampler over the given weights. Weights need not sum to anything in particular.
+     * @param weights The non-negative weight of each outcome; at least one must be positive.
+     */
+    public AliasSampler(double[] weights) {
+        int n = weights.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("At least one weight is required.");
+        }
+        double total = 0;
+        for (double weight : weights) {
+            if (weight < 0 || Double.isNaN(weight) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Invalid weight: " + weight);
+            }
+            total += weight;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Weights must not all be zero.");
+        }
+
+        this.alias = new int[n];
+        this.threshold = new long[n];
+        this.probabilities = new double[n];
+
+        // Scale so the average column holds exactly 1.0
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            probabilities[i] = weights[i] / total;
+            scaled[i] = probabilities[i] * n;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            threshold[less] = Math.round(scaled[less] * ONE);
+            alias[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // Whatever is left is full up to rounding error
+        while (largeCount > 0) {
+            int index = large[--largeCount];
+            threshold[index] = ONE;
+            alias[index] = index;
+        }
+        while (smallCount > 0) {
+            int index = small[--smallCount];
+            threshold[index] = ONE;
+            alias[index] = index;
+        }
+    }
+
+    /**
+     * Builds a sampler over integer weights, such as rarity percentages.
+     * @param weights The non-negative weight of each outcome.
+     * @return The sampler.
+     */
+    public static AliasSampler ofWeights(int... weights) {
+        double[] converted = new double[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            converted[i] = weights[i];
+        }
+        return new AliasSampler(converted);
+    }
+
+    /**
+     * Picks an outcome from 32 uniformly random bits.
+     * The high part of {@code bits * n} selects the column, the low part decides between the column and its alias.
+     * @param bits A uniformly distributed random int.
+     * @return The index of the chosen outcome.
+     */
+    public int sample(int bits) {
+        long product = (bits & 0xFFFFFFFFL) * alias.length;
+        int column = (int) (product >>> 32);
+        return (product & 0xFFFFFFFFL) < threshold[column] ? column : alias[column];
+    }
+
+    /**
+     * Picks an outcome using the given random generator.
+     * @param random The source of randomness.
+     * @return The index of the chosen outcome.
+     */
+    public int sample(RandomGenerator random) {
+        return sample(random.nextInt());
+    }
+
+    /**
+     * @return The number of outcomes.
+     */
+    public int size() {
+        return alias.length;
+    }
+
+    /**
+     * @param index The outcome index.
+     * @return The normalized probability of the outcome.
+     */
+    public double getProbability(int index) {
+        return probabilities[index];
+    }
+}
@@ -0,0 +1,182 @@
+package service;
+
+import model.CardTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Draw sink backed by a bounded ring buffer and a background flusher thread.
+ * Publishing is lock-free and never waits: when the buffer is full the draw is dropped and counted instead.
+ * The flusher hands draws to a {@link BatchHandler} in batches, so the handler pays its own costs
+ * (stdout lock, I/O) once per batch instead of once per card.
+ */
+public class AsyncDrawEventSink implements DrawEventSink, AutoCloseable {
+
+    /**
+     * Consumes batches of packed draws on the flusher thread.
+     */
+    @FunctionalInterface
+    public interface BatchHandler {
+        /**
+         * @param draws Buffer holding the packed draws; only valid for the duration of the call.
+         * @param count Number of draws in the buffer.
+         */
+        void handle(long[] draws, int count);
+    }
+
+    private static final long IDLE_PARK_NANOS = 1_000_000L;
+
+    private final long[] buffer;
+    // Per-slot sequence numbers: slot i is free for position p when sequence == p, readable when sequence == p + 1
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final BatchHandler handler;
+    private final long[] batch;
+    private final Thread flusher;
+    private volatile boolean running = true;
+    private long head; // only touched by the flusher thread
+
+    /**
+     * Creates the sink and starts its flusher thread.
+     * @param capacity Ring buffer capacity, rounded up to a power of two.
+     * @param batchSize Maximum number of draws handed to the handler at once.
+     * @param handler Consumer of the batches.
+     */
+    public AsyncDrawEventSink(int capacity, int batchSize, BatchHandler handler) {
+        if (capacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Capacity and batch size must be positive.");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.buffer = new long[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.handler = handler;
+        this.batch = new long[batchSize];
+        this.flusher = new Thread(this::runFlusher, "gacha-draw-events");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Shared sink that prints draws to standard output, in the same format drawCards used to print inline.
+     * Pending draws are flushed when the JVM shuts down.
+     * @return The shared stdout sink.
+     */
+    public static AsyncDrawEventSink stdout() {
+        return StdoutHolder.INSTANCE;
+    }
+
+    private static final class StdoutHolder {
+        private static final AsyncDrawEventSink INSTANCE = createStdoutSink();
+
+        private static AsyncDrawEventSink createStdoutSink() {
+            AsyncDrawEventSink sink = new AsyncDrawEventSink(8192, 256, AsyncDrawEventSink::printBatch);
+            Runtime.getRuntime().addShutdownHook(new Thread(sink::close, "gacha-draw-events-shutdown"));
+            return sink;
+        }
+    }
+
+    private static void printBatch(long[] draws, int count) {
+        StringBuilder sb = new StringBuilder(count * 96);
+        for (int i = 0; i < count; i++) {
+            CardTemplate template = GachaService.getTemplate(GachaService.templateIdOf(draws[i]));
+            sb.append(String.format("[Gacha] Drawn Card: Name=%s, Attribute=%s, Rarity=%s, Type=%s, Power=%d%n",
+                    template.getName(), template.getAttribute(), template.getRarity(), template.getType(),
+                    GachaService.powerOf(draws[i])));
+        }
+        System.out.print(sb);
+    }
+
+    @Override
+    public void publish(long draw) {
+        if (!running) {
+            dropped.incrementAndGet();
+            return;
+        }
+        long position = tail.get();
+        while (true) {
+            int slot = (int) (position & mask);
+            long sequence = sequences.get(slot);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    buffer[slot] = draw;
+                    sequences.set(slot, position + 1);
+                    return;
+                }
+                position = tail.get();
+            } else if (sequence < position) {
+                // The flusher has not caught up with this slot yet: buffer is full
+                dropped.incrementAndGet();
+                return;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * @return Number of draws discarded because the buffer was full or the sink was closed.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Stops the flusher thread after it has handed every buffered draw to the handler.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(flusher);
+        if (Thread.currentThread() != flusher) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void runFlusher() {
+        while (true) {
+            // Read the flag before draining so nothing published before close() is left behind
+            boolean stopping = !running;
+            int count = drain();
+            if (count > 0) {
+                try {
+                    handler.handle(batch, count);
+                } catch (RuntimeException e) {
+                    System.err.println("[Gacha] Draw event handler failed: " + e.getMessage());
+                }
+            } else if (stopping) {
+                return;
+            } else {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private int drain() {
+        int count = 0;
+        while (count < batch.length) {
+            int slot = (int) (head & mask);
+            if (sequences.get(slot) != head + 1) {
+                break;
+            }
+            batch[count++] = buffer[slot];
+            sequences.set(slot, head + buffer.length);
+            head++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,99 @@
+package service;
+
+import model.Attribute;
+
+/**
+ * Attribute bonuses compiled into a table indexed by attribute ordinals.
+ * Every entry holds the bonuses of both cards in a pairing, so a fight resolves both with one array read.
+ * Bonuses do not have to be symmetric, and the table grows with {@link Attribute} automatically.
+ */
+public final class AttributeAdvantage {
+    private static final int STANDARD_BONUS = 4;
+
+    private final int size;
+    // Index attacker * size + defender; low 16 bits: attacker's bonus, high 16 bits: defender's bonus
+    private final int[] pairs;
+
+    /**
+     * Builds a table from explicit bonuses.
+     * @param bonuses {@code bonuses[a][b]} is the bonus a card of attribute ordinal {@code a} gets against attribute {@code b}.
+     */
+    public AttributeAdvantage(int[][] bonuses) {
+        int n = Attribute.values().length;
+        if (bonuses.length != n) {
+            throw new IllegalArgumentException("Expected bonuses for " + n + " attributes but got " + bonuses.length);
+        }
+        this.size = n;
+        this.pairs = new int[n * n];
+        for (int a = 0; a < n; a++) {
+            if (bonuses[a].length != n) {
+                throw new IllegalArgumentException("Expected " + n + " bonuses for " + Attribute.values()[a] + " but got " + bonuses[a].length);
+            }
+            for (int b = 0; b < n; b++) {
+                int own = bonuses[a][b];
+                int other = bonuses[b][a];
+                if (own != (short) own || other != (short) other) {
+                    throw new IllegalArgumentException("Bonus out of range for " + Attribute.values()[a] + " vs " + Attribute.values()[b]);
+                }
+                pairs[a * n + b] = (own & 0xFFFF) | (other << 16);
+            }
+        }
+    }
+
+    /**
+     * The standard rules: +4 for the attribute that is strong against the other, as defined by {@link Attribute#isStrongAgainst}.
+     * @return The standard table.
+     */
+    public static AttributeAdvantage standard() {
+        Attribute[] attributes = Attribute.values();
+        int[][] bonuses = new int[attributes.length][attributes.length];
+        for (Attribute attacker : attributes) {
+            for (Attribute defender : attributes) {
+                if (attacker.isStrongAgainst(defender)) {
+                    bonuses[attacker.ordinal()][defender.ordinal()] = STANDARD_BONUS;
+                }
+            }
+        }
+        return new AttributeAdvantage(bonuses);
+    }
+
+    /**
+     * @param first Attribute ordinal of the first card.
+     * @param second Attribute ordinal of the second card.
+     * @return Both bonuses packed; read them with {@link #firstBonus(int)} and {@link #secondBonus(int)}.
+     */
+    public int pair(int first, int second) {
+        return pairs[first * size + second];
+    }
+
+    /**
+     * @return The number of attributes the table covers; pairs are indexed {@code first * size + second}.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return The packed pair table itself, for callers that index it directly on hot paths. Must not be modified.
+     */
+    int[] pairs() {
+        return pairs;
+    }
+
+    public static int firstBonus(int pair) {
+        return (short) pair;
+    }
+
+    public static int secondBonus(int pair) {
+        return pair >> 16;
+    }
+
+    /**
+     * @param attacker The attribute receiving the bonus.
+     * @param defender The opposing attribute.
+     * @return The bonus the attacker gets against the defender.
+     */
+    public int bonus(Attribute attacker, Attribute defender) {
+        return firstBonus(pair(attacker.ordinal(), defender.ordinal()));
+    }
+}
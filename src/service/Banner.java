@@ -0,0 +1,90 @@
+package service;
+
+import model.Rarity;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Definition of a gacha banner: which templates can be drawn, how strongly each one is weighted
+ * within its attribute/rarity pool, and optionally its own rarity rates.
+ * Banners are immutable; {@link GachaService#setBanner(Banner)} compiles one into sampling tables.
+ */
+public final class Banner {
+    private final String name;
+    private final Map<String, Double> templateWeights;
+    private final double[] rarityWeights;
+
+    /**
+     * Creates a banner.
+     * @param name The display name of the banner.
+     * @param templateWeights Template name to weight; templates not listed are not drawable on this banner.
+     *                        A weight of 1.0 is the normal rate, higher values are rate-ups.
+     * @param rarityWeights One weight per rarity in {@link Rarity} declaration order, or null to use the rates on the enum.
+     */
+    public Banner(String name, Map<String, Double> templateWeights, double[] rarityWeights) {
+        if (templateWeights.isEmpty()) {
+            throw new IllegalArgumentException("Banner '" + name + "' has no templates.");
+        }
+        if (rarityWeights != null && rarityWeights.length != Rarity.values().length) {
+            throw new IllegalArgumentException("Expected " + Rarity.values().length + " rarity weights but got " + rarityWeights.length);
+        }
+        this.name = name;
+        this.templateWeights = Collections.unmodifiableMap(new LinkedHashMap<>(templateWeights));
+        this.rarityWeights = rarityWeights == null ? null : rarityWeights.clone();
+    }
+
+    /**
+     * The permanent banner: every template at the normal rate and the rarity rates from the enum.
+     * @return The standard banner.
+     */
+    public static Banner standard() {
+        Map<String, Double> weights = new LinkedHashMap<>();
+        for (int id = 0; id < GachaService.getTemplateCount(); id++) {
+            weights.put(GachaService.getTemplate(id).getName(), 1.0);
+        }
+        return new Banner("Standard", weights, null);
+    }
+
+    /**
+     * Returns a copy of this banner with different rarity rates.
+     * @param rarityWeights One weight per rarity, or null for the rates on the enum.
+     * @return The new banner.
+     */
+    public Banner withRarityWeights(double[] rarityWeights) {
+        return new Banner(name, templateWeights, rarityWeights);
+    }
+
+    /**
+     * Returns a copy of this banner with one template's weight changed (or added).
+     * @param templateName The template to rate up.
+     * @param weight The new weight.
+     * @return The new banner.
+     */
+    public Banner withRateUp(String templateName, double weight) {
+        Map<String, Double> weights = new LinkedHashMap<>(templateWeights);
+        weights.put(templateName, weight);
+        return new Banner(name, weights, rarityWeights);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, Double> getTemplateWeights() {
+        return templateWeights;
+    }
+
+    /**
+     * @return The rarity weights, or null if the banner uses the rates on the enum.
+     */
+    public double[] getRarityWeights() {
+        return rarityWeights == null ? null : rarityWeights.clone();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Banner{name='%s', templates=%d}", name, templateWeights.size());
+    }
+}
@@ -0,0 +1,121 @@
+package service;
+
+import model.Attribute;
+
+/**
+ * Resolves many battles at once from columnar card data.
+ * The attribute table is folded into a single power offset per attribute pairing, so each battle is one
+ * table read, one subtraction and a branch-free sign test. Results use the {@link BattleService} codes.
+ */
+public final class BatchBattleEvaluator {
+    private final int attributeCount;
+    // offset[a * attributeCount + b]: first card's bonus minus second card's bonus
+    private final int[] offset;
+
+    /**
+     * Creates an evaluator with the standard attribute bonuses.
+     */
+    public BatchBattleEvaluator() {
+        this(AttributeAdvantage.standard());
+    }
+
+    /**
+     * @param advantage The attribute bonus table, as used by {@link BattleService}.
+     */
+    public BatchBattleEvaluator(AttributeAdvantage advantage) {
+        this.attributeCount = Attribute.values().length;
+        this.offset = new int[attributeCount * attributeCount];
+        for (int a = 0; a < attributeCount; a++) {
+            for (int b = 0; b < attributeCount; b++) {
+                int pair = advantage.pair(a, b);
+                offset[a * attributeCount + b] = AttributeAdvantage.firstBonus(pair) - AttributeAdvantage.secondBonus(pair);
+            }
+        }
+    }
+
+    /**
+     * Resolves {@code count} independent battles, pairing index i of the first arrays with index i of the second.
+     * @param attributes1 Attribute ordinals of the first cards.
+     * @param powers1 Base powers of the first cards.
+     * @param attributes2 Attribute ordinals of the second cards.
+     * @param powers2 Base powers of the second cards.
+     * @param results Receives {@link BattleService#DRAW}, {@link BattleService#FIRST_WINS} or {@link BattleService#SECOND_WINS}.
+     * @param count Number of battles.
+     */
+    public void evaluate(int[] attributes1, int[] powers1, int[] attributes2, int[] powers2, byte[] results, int count) {
+        for (int i = 0; i < count; i++) {
+            int difference = powers1[i] - powers2[i] + offset[attributes1[i] * attributeCount + attributes2[i]];
+            // (difference > 0) -> 1, (difference < 0) -> 2, 0 -> 0, without branches
+            results[i] = (byte) (((-difference) >>> 31) | ((difference >>> 31) << 1));
+        }
+    }
+
+    /**
+     * Plays every card of {@code first} against every card of {@code second}.
+     * Each card's wins, draws (and implicitly losses) are counted with two binary searches per attribute
+     * group of {@code second}, so the cost is O(|first| * attributes * log |second|) rather than |first| * |second|.
+     * @param first The cards being rated.
+     * @param second The opposing collection.
+     * @param wins Receives, per source index of {@code first}, how many cards of {@code second} it beats.
+     * @param draws Receives, per source index of {@code first}, how many cards of {@code second} it draws with.
+     */
+    public void winCounts(CardColumns first, CardColumns second, int[] wins, int[] draws) {
+        int[] opposingPowers = second.powers();
+        for (int column = 0; column < first.size(); column++) {
+            int attribute = first.getAttribute(column);
+            int power = first.getPower(column);
+            int winCount = 0;
+            int drawCount = 0;
+            for (int other = 0; other < attributeCount; other++) {
+                int from = second.groupStart(other);
+                int to = second.groupEnd(other);
+                if (from == to) {
+                    continue;
+                }
+                // Beats opposing cards whose power is below power + offset; draws with those equal to it
+                int threshold = power + offset[attribute * attributeCount + other];
+                int below = lowerBound(opposingPowers, from, to, threshold);
+                int notAbove = lowerBound(opposingPowers, below, to, threshold + 1);
+                winCount += below - from;
+                drawCount += notAbove - below;
+            }
+            int source = first.getSourceIndex(column);
+            wins[source] = winCount;
+            draws[source] = drawCount;
+        }
+    }
+
+    /**
+     * Win rate of each card of {@code first} against the whole of {@code second}, counting a draw as half a win.
+     * @param first The cards being rated.
+     * @param second The opposing collection.
+     * @return Win rates indexed by source index of {@code first}.
+     */
+    public double[] winRates(CardColumns first, CardColumns second) {
+        int[] wins = new int[first.size()];
+        int[] draws = new int[first.size()];
+        winCounts(first, second, wins, draws);
+        double[] rates = new double[first.size()];
+        if (second.size() == 0) {
+            return rates;
+        }
+        for (int i = 0; i < rates.length; i++) {
+            rates[i] = (wins[i] + 0.5 * draws[i]) / second.size();
+        }
+        return rates;
+    }
+
+    private static int lowerBound(int[] values, int from, int to, int key) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -6,6 +6,43 @@ import model.Card;
  * Service for handling battles between two cards.
  */
 public class BattleService {
+    /** Packed outcome result: the battle was a draw. */
+    public static final int DRAW = 0;
+    /** Packed outcome result: the first card won. */
+    public static final int FIRST_WINS = 1;
+    /** Packed outcome result: the second card won. */
+    public static final int SECOND_WINS = 2;
+
+    // Packed outcome layout: bits 0-27 first final power, bits 28-55 second final power (both signed), bits 56-63 result
+    private static final int POWER_BITS = 28;
+    private static final long POWER_MASK = (1L << POWER_BITS) - 1;
+
+    /** Highest final power, base power plus bonus, a packed outcome can hold. */
+    public static final int MAX_FINAL_POWER = (1 << (POWER_BITS - 1)) - 1;
+    /** Lowest final power a packed outcome can hold. */
+    public static final int MIN_FINAL_POWER = -(1 << (POWER_BITS - 1));
+
+    private final AttributeAdvantage advantage;
+    // Copied out of the advantage table so a fight is a single array read without extra indirection
+    private final int[] advantagePairs;
+    private final int attributeCount;
+
+    /**
+     * Creates a battle service with the standard attribute bonuses.
+     */
+    public BattleService() {
+        this(AttributeAdvantage.standard());
+    }
+
+    /**
+     * Creates a battle service with custom attribute bonuses.
+     * @param advantage The attribute bonus table.
+     */
+    public BattleService(AttributeAdvantage advantage) {
+        this.advantage = advantage;
+        this.advantagePairs = advantage.pairs();
+        this.attributeCount = advantage.size();
+    }
 
     /**
      * Represents the result of a battle between two cards.
@@ -56,15 +93,11 @@ public class BattleService {
      * @return The result of the battle, including the winner and final powers.
      */
     public BattleResult fight(Card c1, Card c2) {
-        int c1FinalPower = c1.getBasePower();
-        int c2FinalPower = c2.getBasePower();
-
         // Apply attribute advantage
-        if (c1.getAttribute().isStrongAgainst(c2.getAttribute())) {
-            c1FinalPower += 4;
-        } else if (c2.getAttribute().isStrongAgainst(c1.getAttribute())) {
-            c2FinalPower += 4;
-        }        // Determine winner
+        int bonuses = advantagePairs[c1.getAttribute().ordinal() * attributeCount + c2.getAttribute().ordinal()];
+        int c1FinalPower = c1.getBasePower() + AttributeAdvantage.firstBonus(bonuses);
+        int c2FinalPower = c2.getBasePower() + AttributeAdvantage.secondBonus(bonuses);
+        // Determine winner
         if (c1FinalPower > c2FinalPower) {
             return new BattleResult(c1, c2, c1FinalPower, c2FinalPower);
         } else if (c2FinalPower > c1FinalPower) {
@@ -74,4 +107,70 @@ public class BattleService {
             return new BattleResult(null, null, c1FinalPower, c2FinalPower);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Conducts a battle without allocating a {@link BattleResult}.
+     * @param c1 The first card.
+     * @param c2 The second card.
+     * @return The packed outcome; read it with {@link #resultOf}, {@link #firstPowerOf} and {@link #secondPowerOf}.
+     * @throws IllegalArgumentException If a final power is outside {@link #MIN_FINAL_POWER} to {@link #MAX_FINAL_POWER}.
+     */
+    public long fightPacked(Card c1, Card c2) {
+        return evaluate(c1.getAttribute().ordinal(), c1.getBasePower(), c2.getAttribute().ordinal(), c2.getBasePower());
+    }
+
+    /**
+     * Resolves a battle from primitive card data, for simulations and AI search.
+     * @param attribute1 Attribute ordinal of the first card.
+     * @param power1 Base power of the first card.
+     * @param attribute2 Attribute ordinal of the second card.
+     * @param power2 Base power of the second card.
+     * @return The packed outcome; read it with {@link #resultOf}, {@link #firstPowerOf} and {@link #secondPowerOf}.
+     * @throws IllegalArgumentException If a final power is outside {@link #MIN_FINAL_POWER} to {@link #MAX_FINAL_POWER}.
+     */
+    public long evaluate(int attribute1, int power1, int attribute2, int power2) {
+        // Apply attribute advantage
+        int bonuses = advantagePairs[attribute1 * attributeCount + attribute2];
+        int c1FinalPower = power1 + AttributeAdvantage.firstBonus(bonuses);
+        int c2FinalPower = power2 + AttributeAdvantage.secondBonus(bonuses);
+        int result = c1FinalPower > c2FinalPower ? FIRST_WINS : c2FinalPower > c1FinalPower ? SECOND_WINS : DRAW;
+        return pack(result, c1FinalPower, c2FinalPower);
+    }
+
+    /**
+     * @return The attribute bonus table used by this service.
+     */
+    public AttributeAdvantage getAdvantage() {
+        return advantage;
+    }
+
+    private static long pack(int result, int firstPower, int secondPower) {
+        // A power fits when sign-extending its low POWER_BITS bits gives it back; this also catches int overflow
+        if (firstPower << (32 - POWER_BITS) >> (32 - POWER_BITS) != firstPower
+                || secondPower << (32 - POWER_BITS) >> (32 - POWER_BITS) != secondPower) {
+            throw powerOutOfRange(firstPower, secondPower);
+        }
+        return ((long) result << (2 * POWER_BITS)) | ((secondPower & POWER_MASK) << POWER_BITS) | (firstPower & POWER_MASK);
+    }
+
+    private static IllegalArgumentException powerOutOfRange(int firstPower, int secondPower) {
+        return new IllegalArgumentException(String.format("Final powers %d and %d must be between %d and %d.",
+                firstPower, secondPower, MIN_FINAL_POWER, MAX_FINAL_POWER));
+    }
+
+    /**
+     * @param outcome A packed outcome.
+     * @return {@link #FIRST_WINS}, {@link #SECOND_WINS} or {@link #DRAW}.
+     */
+    public static int resultOf(long outcome) {
+        return (int) (outcome >>> (2 * POWER_BITS));
+    }
+
+    public static int firstPowerOf(long outcome) {
+        return (int) (outcome << (64 - POWER_BITS) >> (64 - POWER_BITS));
+    }
+
+    public static int secondPowerOf(long outcome) {
+        return (int) (outcome << (64 - 2 * POWER_BITS) >> (64 - POWER_BITS));
+    }
+}
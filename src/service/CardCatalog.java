@@ -0,0 +1,433 @@
+package service;
+
+import model.Attribute;
+import model.CardTemplate;
+import model.CardType;
+import model.Rarity;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The catalog of card templates available to the gacha.
+ * <p>
+ * Templates are read from a CSV file ({@code name,attribute,rarity,type,description,image_path}).
+ * The parsed catalog is compiled into a binary snapshot next to the CSV: a header, fixed-width records and a
+ * string table. Later startups memory-map the snapshot instead of re-parsing the CSV, as long as the CSV has
+ * not changed since. If no CSV can be found the built-in catalog is used.
+ * <p>
+ * The CSV location is taken from the {@code cardgame.catalog} system property, defaulting to
+ * {@code resources/cards.csv} in the working directory or next to the application jar.
+ */
+public final class CardCatalog {
+    public static final String CATALOG_PROPERTY = "cardgame.catalog";
+    private static final String DEFAULT_CATALOG = "resources/cards.csv";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+
+    // Snapshot layout: header, then RECORD_SIZE bytes per template, then the string table
+    private static final int MAGIC = 0x43474354; // "CGCT"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 8 + 8 + 4 + 4;
+    private static final int RECORD_SIZE = 4 + 4 + 4 + 1 + 1 + 1 + 1;
+
+    private final List<CardTemplate> templates;
+    private final Map<String, Integer> idsByName;
+    private final String source;
+    private final int fingerprint;
+
+    private CardCatalog(List<CardTemplate> templates, String source) {
+        Map<String, Integer> ids = new HashMap<>();
+        List<CardTemplate> shared = new ArrayList<>(templates.size());
+        for (int id = 0; id < templates.size(); id++) {
+            if (ids.put(templates.get(id).getName(), id) != null) {
+                throw new IllegalArgumentException("Duplicate card name in catalog: " + templates.get(id).getName());
+            }
+            // Register catalog templates as the shared instances cards loaded elsewhere will point at
+            shared.add(CardTemplate.intern(templates.get(id)));
+        }
+        this.templates = Collections.unmodifiableList(shared);
+        this.idsByName = ids;
+        this.source = source;
+        this.fingerprint = fingerprintOf(shared);
+    }
+
+    // Covers what a template id stands for; descriptions and images may change without affecting it
+    private static int fingerprintOf(List<CardTemplate> templates) {
+        int hash = 17;
+        for (CardTemplate template : templates) {
+            hash = 31 * hash + template.getName().hashCode();
+            hash = 31 * hash + template.getAttribute().ordinal();
+            hash = 31 * hash + template.getRarity().ordinal();
+            hash = 31 * hash + template.getType().ordinal();
+        }
+        return hash;
+    }
+
+    /**
+     * Loads the catalog from its configured location, using the binary snapshot when it is up to date.
+     * @return The loaded catalog.
+     */
+    public static CardCatalog load() {
+        Path csv = locateCatalog();
+        if (csv == null) {
+            System.out.println("[Catalog] No catalog file found, using built-in cards.");
+            return new CardCatalog(builtIn(), "built-in");
+        }
+        return load(csv);
+    }
+
+    /**
+     * Loads a catalog from a CSV file, reading or refreshing its snapshot.
+     * @param csv The CSV file.
+     * @return The loaded catalog.
+     */
+    public static CardCatalog load(Path csv) {
+        Path snapshot = csv.resolveSibling(csv.getFileName() + SNAPSHOT_SUFFIX);
+        try {
+            long sourceLength = Files.size(csv);
+            long sourceModified = Files.getLastModifiedTime(csv).toMillis();
+            if (Files.exists(snapshot)) {
+                List<CardTemplate> templates = readSnapshot(snapshot, sourceLength, sourceModified);
+                if (templates != null) {
+                    return new CardCatalog(templates, snapshot.toString());
+                }
+            }
+            List<CardTemplate> templates;
+            try (Reader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+                templates = parseCsv(reader);
+            }
+            try {
+                writeSnapshot(snapshot, templates, sourceLength, sourceModified);
+            } catch (IOException e) {
+                // The snapshot is only a cache; a read-only install still works from the CSV
+                System.err.println("[Catalog] Could not write snapshot " + snapshot + ": " + e.getMessage());
+            }
+            return new CardCatalog(templates, csv.toString());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load card catalog " + csv + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Path locateCatalog() {
+        String configured = System.getProperty(CATALOG_PROPERTY);
+        if (configured != null) {
+            Path path = Paths.get(configured);
+            if (!Files.isRegularFile(path)) {
+                throw new IllegalStateException("Card catalog not found: " + path.toAbsolutePath());
+            }
+            return path;
+        }
+        Path workingDir = Paths.get(DEFAULT_CATALOG);
+        if (Files.isRegularFile(workingDir)) {
+            return workingDir;
+        }
+        try {
+            Path codePath = Paths.get(CardCatalog.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            Path besideCode = codePath.getParent().resolve(DEFAULT_CATALOG);
+            if (Files.isRegularFile(besideCode)) {
+                return besideCode;
+            }
+        } catch (Exception ignored) {
+            // No usable code location (e.g. custom class loader); fall through to the built-in catalog
+        }
+        return null;
+    }
+
+    /**
+     * Parses catalog CSV. The first line is a header; fields may be quoted with {@code "} and quotes doubled inside.
+     * @param reader The CSV text.
+     * @return The templates in file order.
+     * @throws IOException If reading fails or a line is malformed.
+     */
+    public static List<CardTemplate> parseCsv(Reader reader) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        List<CardTemplate> templates = new ArrayList<>();
+        String line = lines.readLine(); // header
+        int lineNumber = 1;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = splitCsvLine(line);
+            if (fields.size() != 6) {
+                throw new IOException("Line " + lineNumber + ": expected 6 fields but got " + fields.size());
+            }
+            try {
+                templates.add(new CardTemplate(
+                        fields.get(0),
+                        Attribute.valueOf(fields.get(1).trim()),
+                        Rarity.valueOf(fields.get(2).trim()),
+                        CardType.valueOf(fields.get(3).trim()),
+                        fields.get(4),
+                        fields.get(5)));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return templates;
+    }
+
+    private static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Writes the binary snapshot of a catalog. The file is written under a temporary name and moved into place.
+     */
+    static void writeSnapshot(Path snapshot, List<CardTemplate> templates, long sourceLength, long sourceModified) throws IOException {
+        // Deduplicate strings; many templates share image directories or descriptions
+        Map<String, Integer> offsets = new LinkedHashMap<>();
+        int[] stringTableSize = {0};
+        int[][] refs = new int[templates.size()][];
+        for (int i = 0; i < templates.size(); i++) {
+            CardTemplate template = templates.get(i);
+            refs[i] = new int[] {
+                    intern(offsets, stringTableSize, template.getName()),
+                    intern(offsets, stringTableSize, template.getDescription()),
+                    intern(offsets, stringTableSize, template.getImagePath())
+            };
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + templates.size() * RECORD_SIZE + stringTableSize[0])
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(schemaFingerprint())
+                .putLong(sourceLength).putLong(sourceModified)
+                .putInt(templates.size()).putInt(stringTableSize[0]);
+        for (int i = 0; i < templates.size(); i++) {
+            CardTemplate template = templates.get(i);
+            buffer.putInt(refs[i][0]).putInt(refs[i][1]).putInt(refs[i][2])
+                    .put((byte) template.getAttribute().ordinal())
+                    .put((byte) template.getRarity().ordinal())
+                    .put((byte) template.getType().ordinal())
+                    .put((byte) 0);
+        }
+        for (String value : offsets.keySet()) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            buffer.putInt(bytes.length).put(bytes);
+        }
+        buffer.flip();
+
+        Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int intern(Map<String, Integer> offsets, int[] size, String value) {
+        String key = value == null ? "" : value;
+        Integer offset = offsets.get(key);
+        if (offset == null) {
+            offset = size[0];
+            offsets.put(key, offset);
+            size[0] += 4 + key.getBytes(StandardCharsets.UTF_8).length;
+        }
+        return offset;
+    }
+
+    /**
+     * Reads a snapshot through a memory mapping.
+     * @return The templates, or null if the snapshot is stale, from another format version or corrupt.
+     */
+    static List<CardTemplate> readSnapshot(Path snapshot, long sourceLength, long sourceModified) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                return null;
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getInt() != schemaFingerprint()
+                    || buffer.getLong() != sourceLength || buffer.getLong() != sourceModified) {
+                return null;
+            }
+            int count = buffer.getInt();
+            int stringTableSize = buffer.getInt();
+            long recordsEnd = HEADER_SIZE + (long) count * RECORD_SIZE;
+            if (count < 0 || stringTableSize < 0 || recordsEnd + stringTableSize != channel.size()) {
+                return null;
+            }
+            int stringTableStart = (int) recordsEnd;
+
+            Attribute[] attributes = Attribute.values();
+            Rarity[] rarities = Rarity.values();
+            CardType[] types = CardType.values();
+            Map<Integer, String> strings = new HashMap<>();
+            List<CardTemplate> templates = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int record = HEADER_SIZE + i * RECORD_SIZE;
+                templates.add(new CardTemplate(
+                        readString(buffer, stringTableStart, buffer.getInt(record), strings),
+                        attributes[buffer.get(record + 12)],
+                        rarities[buffer.get(record + 13)],
+                        types[buffer.get(record + 14)],
+                        readString(buffer, stringTableStart, buffer.getInt(record + 4), strings),
+                        readString(buffer, stringTableStart, buffer.getInt(record + 8), strings)));
+            }
+            return templates;
+        } catch (RuntimeException e) {
+            // The snapshot is only a cache; whatever is wrong with it, the CSV is parsed again
+            System.err.println("[Catalog] Ignoring corrupt snapshot " + snapshot + ": " + e);
+            return null;
+        }
+    }
+
+    // Offsets and lengths are checked against the string table so a corrupt field cannot allocate a huge array
+    private static String readString(ByteBuffer buffer, int stringTableStart, int offset, Map<Integer, String> cache) {
+        String value = cache.get(offset);
+        if (value == null) {
+            int available = buffer.limit() - stringTableStart;
+            if (offset < 0 || offset > available - 4) {
+                throw new IndexOutOfBoundsException("String offset " + offset + " outside the string table");
+            }
+            int position = stringTableStart + offset;
+            int length = buffer.getInt(position);
+            if (length < 0 || length > available - offset - 4) {
+                throw new IndexOutOfBoundsException("String length " + length + " at offset " + offset);
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(position + 4, bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            cache.put(offset, value);
+        }
+        return value;
+    }
+
+    /**
+     * Snapshots store enum ordinals, so they are only valid for the enum constants they were written with.
+     */
+    private static int schemaFingerprint() {
+        int hash = 17;
+        for (Attribute attribute : Attribute.values()) {
+            hash = 31 * hash + attribute.name().hashCode();
+        }
+        for (Rarity rarity : Rarity.values()) {
+            hash = 31 * hash + rarity.name().hashCode();
+        }
+        for (CardType type : CardType.values()) {
+            hash = 31 * hash + type.name().hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * @return The templates, in catalog order; a template's index is its id.
+     */
+    public List<CardTemplate> getTemplates() {
+        return templates;
+    }
+
+    /**
+     * @param name The card name.
+     * @return The id of the template with that name, or -1 if it is not in the catalog.
+     */
+    public int findId(String name) {
+        Integer id = idsByName.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Changes whenever a template id would stand for a different card, e.g. after cards are added, removed,
+     * reordered or renamed in the CSV.
+     * @return A hash of the templates' ids, names, attributes, rarities and types.
+     */
+    public int getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @return Where the catalog was loaded from, for diagnostics.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * The cards the game shipped with, used when no catalog file is available.
+     */
+    private static List<CardTemplate> builtIn() {
+        List<CardTemplate> templates = new ArrayList<>();
+        // Fire attribute cards
+        templates.add(new CardTemplate("Blaze Hound", Attribute.FIRE, Rarity.R, CardType.BEAST, "A fast-burning canine, agile but fragile.", "resources/images/blaze_hound.png"));
+        templates.add(new CardTemplate("Flame Hedgehog", Attribute.FIRE, Rarity.R, CardType.BEAST, "Defensive spiker that retaliates when hit.", "resources/images/flame_hedgehog.png"));
+        templates.add(new CardTemplate("Ember Archer", Attribute.FIRE, Rarity.SR, CardType.WARRIOR, "Fires burning arrows from long range.", "resources/images/ember_archer.png"));
+        templates.add(new CardTemplate("Lava Beetle", Attribute.FIRE, Rarity.SR, CardType.NATURE, "Molten body grants high resistance.", "resources/images/lava_beetle.png"));
+        templates.add(new CardTemplate("Flame Dancer", Attribute.FIRE, Rarity.SR, CardType.MAGE, "Twirls through the battlefield, evasive.", "resources/images/flame_dancer.png"));
+        templates.add(new CardTemplate("Inferno Dragon", Attribute.FIRE, Rarity.SSR, CardType.BEAST, "Dominant fire-breather, area burn skill.", "resources/images/inferno_dragon.png"));
+        templates.add(new CardTemplate("Hellfire Knight", Attribute.FIRE, Rarity.SSR, CardType.WARRIOR, "Rides a fire beast, blends strength & magic.", "resources/images/hellfire_knight.png"));
+        templates.add(new CardTemplate("Solar Fox", Attribute.FIRE, Rarity.SR, CardType.BEAST, "Quick-strike card with bonus crit chance.", "resources/images/solar_fox.png"));
+        templates.add(new CardTemplate("Magma Golem", Attribute.FIRE, Rarity.R, CardType.GOLEM, "Slow but incredibly hard to destroy.", "resources/images/magma_golem.png"));
+        templates.add(new CardTemplate("Ash Phoenix", Attribute.FIRE, Rarity.SSR, CardType.ELEMENTAL, "Mythical rebirth card, powerful late-game.", "resources/images/ash_phoenix.png"));
+        // Grass attribute cards
+        templates.add(new CardTemplate("Mossback Turtle", Attribute.GRASS, Rarity.R, CardType.BEAST, "Tanky turtle with regeneration abilities.", "resources/images/mossback_turtle.png"));
+        templates.add(new CardTemplate("Leaf Pixie", Attribute.GRASS, Rarity.R, CardType.MAGE, "Disruptive support unit, specializes in CC.", "resources/images/leaf_pixie.png"));
+        templates.add(new CardTemplate("Vine Hunter", Attribute.GRASS, Rarity.SR, CardType.WARRIOR, "Archer who tracks with entangling vines.", "resources/images/vine_hunter.png"));
+        templates.add(new CardTemplate("Boomshroom", Attribute.GRASS, Rarity.SR, CardType.NATURE, "Explodes on attack, high-risk card.", "resources/images/boomshroom.png"));
+        templates.add(new CardTemplate("Thorn Witch", Attribute.GRASS, Rarity.SR, CardType.MAGE, "Specializes in poison and control.", "resources/images/thorn_witch.png"));
+        templates.add(new CardTemplate("Shadow Leopard", Attribute.GRASS, Rarity.SSR, CardType.BEAST, "Stealthy predator, double strike ability.", "resources/images/shadow_leopard.png"));
+        templates.add(new CardTemplate("Glimmerhorn King", Attribute.GRASS, Rarity.SSR, CardType.BEAST, "King of the field, inspires other cards.", "resources/images/glimmerhorn_king.png"));
+        templates.add(new CardTemplate("Spirit of Forest", Attribute.GRASS, Rarity.SSR, CardType.ELEMENTAL, "Legendary support card, heals over time.", "resources/images/spirit_of_forest.png"));
+        templates.add(new CardTemplate("Petal Guardian", Attribute.GRASS, Rarity.R, CardType.WARRIOR, "Defensive shield unit, ideal for stalling.", "resources/images/petal_guardian.png"));
+        templates.add(new CardTemplate("Prairie Windwolf", Attribute.GRASS, Rarity.SR, CardType.BEAST, "Breaks through defense with speed.", "resources/images/prairie_windwolf.png"));
+        // Water attribute cards
+        templates.add(new CardTemplate("Bubble Tardigrade", Attribute.WATER, Rarity.R, CardType.BEAST, "Cute yet resilient, restores minor HP.", "resources/images/bubble_tardigrade.png"));
+        templates.add(new CardTemplate("Tide Ninja", Attribute.WATER, Rarity.R, CardType.WARRIOR, "High dodge rate, fast assassin.", "resources/images/tide_ninja.png"));
+        templates.add(new CardTemplate("Ice-scaled Murloc", Attribute.WATER, Rarity.SR, CardType.BEAST, "Blocks incoming attacks, counter-ready.", "resources/images/ice_scaled_murloc.png"));
+        templates.add(new CardTemplate("Aqua Sorcerer", Attribute.WATER, Rarity.SR, CardType.MAGE, "Area caster, slows enemy cards.", "resources/images/aqua_sorcerer.png"));
+        templates.add(new CardTemplate("Abyssal Tentacle", Attribute.WATER, Rarity.SR, CardType.NATURE, "Disrupts and binds opponents in place.", "resources/images/abyssal_tentacle.png"));
+        templates.add(new CardTemplate("Frost Giant", Attribute.WATER, Rarity.SSR, CardType.ELEMENTAL, "Slows enemies and freezes the battlefield.", "resources/images/frost_giant.png"));
+        templates.add(new CardTemplate("Sea King Knight", Attribute.WATER, Rarity.SSR, CardType.WARRIOR, "Leads aquatic troops, aggressive leader.", "resources/images/sea_king_knight.png"));
+        templates.add(new CardTemplate("Snowfang Lynx", Attribute.WATER, Rarity.SR, CardType.BEAST, "Fast striker with high crit potential.", "resources/images/snowfang_lynx.png"));
+        templates.add(new CardTemplate("Mystic Codex", Attribute.WATER, Rarity.R, CardType.MAGE, "Autonomous water spellcaster.", "resources/images/mystic_codex.png"));
+        templates.add(new CardTemplate("Tidal Leviathan", Attribute.WATER, Rarity.SSR, CardType.BEAST, "Devastating waterquake attack, hard to beat.", "resources/images/tidal_leviathan.png"));
+        return templates;
+    }
+}
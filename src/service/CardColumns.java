@@ -0,0 +1,147 @@
+package service;
+
+import model.Attribute;
+import model.Card;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Struct-of-arrays view of a collection of cards: attribute ordinals and base powers in parallel arrays.
+ * Cards are grouped by attribute and sorted by power inside each group, so batch evaluation can scan contiguous
+ * runs and count wins with binary searches. {@link #getSourceIndex(int)} maps a column back to the original list.
+ */
+public final class CardColumns {
+    private static final int COUNTING_SORT_MIN_RANGE = 1024;
+
+    private final int[] attributes;
+    private final int[] powers;
+    private final int[] sourceIndex;
+    // groupStart[a] .. groupStart[a + 1] is the range of cards with attribute ordinal a
+    private final int[] groupStart;
+
+    private CardColumns(int[] attributes, int[] powers, int[] sourceIndex, int[] groupStart) {
+        this.attributes = attributes;
+        this.powers = powers;
+        this.sourceIndex = sourceIndex;
+        this.groupStart = groupStart;
+    }
+
+    /**
+     * @param cards The cards to convert.
+     * @return The columns for those cards.
+     */
+    public static CardColumns of(List<Card> cards) {
+        int[] attributes = new int[cards.size()];
+        int[] powers = new int[cards.size()];
+        for (int i = 0; i < cards.size(); i++) {
+            attributes[i] = cards.get(i).getAttribute().ordinal();
+            powers[i] = cards.get(i).getBasePower();
+        }
+        return of(attributes, powers, cards.size());
+    }
+
+    /**
+     * @param attributes Attribute ordinal of each card.
+     * @param powers Base power of each card.
+     * @param count Number of cards to take from the arrays.
+     * @return The columns for those cards.
+     */
+    public static CardColumns of(int[] attributes, int[] powers, int count) {
+        int attributeCount = Attribute.values().length;
+        int[] groupStart = new int[attributeCount + 1];
+        for (int i = 0; i < count; i++) {
+            groupStart[attributes[i] + 1]++;
+        }
+        for (int a = 0; a < attributeCount; a++) {
+            groupStart[a + 1] += groupStart[a];
+        }
+
+        // Stable counting sort by attribute over the cards in power order, so every group ends up sorted by power
+        int[] order = orderByPower(powers, count);
+        int[] next = groupStart.clone();
+        int[] sortedAttributes = new int[count];
+        int[] sortedPowers = new int[count];
+        int[] sourceIndex = new int[count];
+        for (int i : order) {
+            int slot = next[attributes[i]]++;
+            sortedAttributes[slot] = attributes[i];
+            sortedPowers[slot] = powers[i];
+            sourceIndex[slot] = i;
+        }
+        return new CardColumns(sortedAttributes, sortedPowers, sourceIndex, groupStart);
+    }
+
+    /**
+     * @return The indices 0 .. count - 1 ordered by power, equal powers in index order.
+     */
+    private static int[] orderByPower(int[] powers, int count) {
+        int[] order = new int[count];
+        if (count == 0) {
+            return order;
+        }
+        int min = powers[0];
+        int max = powers[0];
+        for (int i = 1; i < count; i++) {
+            min = Math.min(min, powers[i]);
+            max = Math.max(max, powers[i]);
+        }
+        long range = (long) max - min + 1;
+        if (range <= Math.max(count, COUNTING_SORT_MIN_RANGE)) {
+            // Catalog powers span a handful of values, so counting sort is linear
+            int[] start = new int[(int) range + 1];
+            for (int i = 0; i < count; i++) {
+                start[powers[i] - min + 1]++;
+            }
+            for (int p = 1; p < start.length; p++) {
+                start[p] += start[p - 1];
+            }
+            for (int i = 0; i < count; i++) {
+                order[start[powers[i] - min]++] = i;
+            }
+        } else {
+            // Sparse powers: sort (power, index) pairs packed into longs
+            long[] keys = new long[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = (long) powers[i] << Integer.SIZE | i;
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < count; i++) {
+                order[i] = (int) keys[i];
+            }
+        }
+        return order;
+    }
+
+    public int size() {
+        return powers.length;
+    }
+
+    public int getAttribute(int column) {
+        return attributes[column];
+    }
+
+    public int getPower(int column) {
+        return powers[column];
+    }
+
+    /**
+     * @param column A column index.
+     * @return The index of that card in the list or arrays the columns were built from.
+     */
+    public int getSourceIndex(int column) {
+        return sourceIndex[column];
+    }
+
+    int groupStart(int attribute) {
+        return groupStart[attribute];
+    }
+
+    int groupEnd(int attribute) {
+        return groupStart[attribute + 1];
+    }
+
+    int[] powers() {
+        return powers;
+    }
+}
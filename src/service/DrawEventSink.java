@@ -0,0 +1,20 @@
+package service;
+
+/**
+ * Receives every draw made by {@link GachaService}, for auditing or logging.
+ * Draws are passed in their packed form (see {@link GachaService#pack(int, int)}) so publishing allocates nothing.
+ */
+@FunctionalInterface
+public interface DrawEventSink {
+
+    /**
+     * A sink that discards every draw.
+     */
+    DrawEventSink NONE = draw -> { };
+
+    /**
+     * Publishes a draw. Called on the drawing thread, so implementations must not block.
+     * @param draw The packed draw.
+     */
+    void publish(long draw);
+}
@@ -0,0 +1,119 @@
+package service;
+
+import model.Attribute;
+import model.CardTemplate;
+import model.Rarity;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * A banner compiled into flat sampling tables.
+ * Immutable, so draws in flight keep using the table they started with while a new one is swapped in.
+ */
+final class DrawTable {
+    private static final Rarity[] RARITIES = Rarity.values();
+    private static final Attribute[] ATTRIBUTES = Attribute.values();
+
+    private final Banner banner;
+    private final AliasSampler raritySampler;
+    // Per rarity ordinal: the attributes that have at least one template on this banner
+    private final Attribute[][] attributesByRarity;
+    // Per attribute ordinal, then rarity ordinal: template ids and the sampler picking among them
+    private final int[][][] pools;
+    private final AliasSampler[][] poolSamplers;
+    // Exact probability of drawing each template id, derived from the tables above
+    private final double[] templateProbabilities;
+
+    DrawTable(Banner banner) {
+        this.banner = banner;
+
+        double[] rarityWeights = banner.getRarityWeights();
+        if (rarityWeights == null) {
+            rarityWeights = new double[RARITIES.length];
+            for (Rarity rarity : RARITIES) {
+                rarityWeights[rarity.ordinal()] = rarity.getProbability();
+            }
+        }
+        this.raritySampler = new AliasSampler(rarityWeights);
+
+        Map<String, Double> templateWeights = banner.getTemplateWeights();
+        this.pools = new int[ATTRIBUTES.length][RARITIES.length][];
+        this.poolSamplers = new AliasSampler[ATTRIBUTES.length][RARITIES.length];
+        this.attributesByRarity = new Attribute[RARITIES.length][];
+        int templateCount = GachaService.getTemplateCount();
+        for (Rarity rarity : RARITIES) {
+            Attribute[] attributes = new Attribute[ATTRIBUTES.length];
+            int attributeCount = 0;
+            for (Attribute attribute : ATTRIBUTES) {
+                int[] ids = new int[templateCount];
+                double[] weights = new double[templateCount];
+                int size = 0;
+                for (int id = 0; id < templateCount; id++) {
+                    CardTemplate template = GachaService.getTemplate(id);
+                    Double weight = templateWeights.get(template.getName());
+                    if (weight != null && weight > 0
+                            && template.getAttribute() == attribute && template.getRarity() == rarity) {
+                        ids[size] = id;
+                        weights[size] = weight;
+                        size++;
+                    }
+                }
+                if (size > 0) {
+                    pools[attribute.ordinal()][rarity.ordinal()] = Arrays.copyOf(ids, size);
+                    poolSamplers[attribute.ordinal()][rarity.ordinal()] = new AliasSampler(Arrays.copyOf(weights, size));
+                    attributes[attributeCount++] = attribute;
+                }
+            }
+            if (attributeCount == 0) {
+                // Pity can force any rarity, so every rarity needs at least one template
+                throw new IllegalArgumentException("Banner '" + banner.getName() + "' has no " + rarity + " templates.");
+            }
+            attributesByRarity[rarity.ordinal()] = Arrays.copyOf(attributes, attributeCount);
+        }
+        this.templateProbabilities = new double[templateCount];
+        for (Rarity rarity : RARITIES) {
+            Attribute[] attributes = attributesByRarity[rarity.ordinal()];
+            double attributeProbability = raritySampler.getProbability(rarity.ordinal()) / attributes.length;
+            for (Attribute attribute : attributes) {
+                int[] ids = pools[attribute.ordinal()][rarity.ordinal()];
+                AliasSampler sampler = poolSamplers[attribute.ordinal()][rarity.ordinal()];
+                for (int i = 0; i < ids.length; i++) {
+                    templateProbabilities[ids[i]] = attributeProbability * sampler.getProbability(i);
+                }
+            }
+        }
+        for (String name : templateWeights.keySet()) {
+            if (GachaService.findTemplateId(name) < 0) {
+                throw new IllegalArgumentException("Banner '" + banner.getName() + "' references unknown template '" + name + "'.");
+            }
+        }
+    }
+
+    Banner getBanner() {
+        return banner;
+    }
+
+    /**
+     * @return The probability of drawing each template id, ignoring pity.
+     */
+    double[] getTemplateProbabilities() {
+        return templateProbabilities.clone();
+    }
+
+    Rarity sampleRarity(RandomGenerator random) {
+        return RARITIES[raritySampler.sample(random)];
+    }
+
+    /**
+     * Picks a template of the given rarity: a uniform attribute among those on the banner, then a weighted template.
+     */
+    int sampleTemplate(RandomGenerator random, Rarity rarity) {
+        Attribute[] attributes = attributesByRarity[rarity.ordinal()];
+        Attribute attribute = attributes[random.nextInt(attributes.length)];
+        int a = attribute.ordinal();
+        int r = rarity.ordinal();
+        return pools[a][r][poolSamplers[a][r].sample(random)];
+    }
+}
@@ -1,58 +1,58 @@
 package service;
 
 import model.Card;
-import model.Attribute;
 import model.Rarity;
 import model.CardTemplate;
-import model.CardType;
+import model.Player;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.random.RandomGenerator;
 
 /**
  * Service for handling the gacha (card drawing) logic.
  */
 public class GachaService {
-    private final Random random = new Random();
-
-    // Static list of all card templates
-    private static final List<CardTemplate> TEMPLATES = new ArrayList<>();
-    static {
-        // Fire attribute cards
-        TEMPLATES.add(new CardTemplate("Blaze Hound", Attribute.FIRE, Rarity.R, CardType.BEAST, "A fast-burning canine, agile but fragile.", "resources/images/blaze_hound.png"));
-        TEMPLATES.add(new CardTemplate("Flame Hedgehog", Attribute.FIRE, Rarity.R, CardType.BEAST, "Defensive spiker that retaliates when hit.", "resources/images/flame_hedgehog.png"));
-        TEMPLATES.add(new CardTemplate("Ember Archer", Attribute.FIRE, Rarity.SR, CardType.WARRIOR, "Fires burning arrows from long range.", "resources/images/ember_archer.png"));
-        TEMPLATES.add(new CardTemplate("Lava Beetle", Attribute.FIRE, Rarity.SR, CardType.NATURE, "Molten body grants high resistance.", "resources/images/lava_beetle.png"));
-        TEMPLATES.add(new CardTemplate("Flame Dancer", Attribute.FIRE, Rarity.SR, CardType.MAGE, "Twirls through the battlefield, evasive.", "resources/images/flame_dancer.png"));
-        TEMPLATES.add(new CardTemplate("Inferno Dragon", Attribute.FIRE, Rarity.SSR, CardType.BEAST, "Dominant fire-breather, area burn skill.", "resources/images/inferno_dragon.png"));
-        TEMPLATES.add(new CardTemplate("Hellfire Knight", Attribute.FIRE, Rarity.SSR, CardType.WARRIOR, "Rides a fire beast, blends strength & magic.", "resources/images/hellfire_knight.png"));
-        TEMPLATES.add(new CardTemplate("Solar Fox", Attribute.FIRE, Rarity.SR, CardType.BEAST, "Quick-strike card with bonus crit chance.", "resources/images/solar_fox.png"));
-        TEMPLATES.add(new CardTemplate("Magma Golem", Attribute.FIRE, Rarity.R, CardType.GOLEM, "Slow but incredibly hard to destroy.", "resources/images/magma_golem.png"));
-        TEMPLATES.add(new CardTemplate("Ash Phoenix", Attribute.FIRE, Rarity.SSR, CardType.ELEMENTAL, "Mythical rebirth card, powerful late-game.", "resources/images/ash_phoenix.png"));
-        // Grass attribute cards
-        TEMPLATES.add(new CardTemplate("Mossback Turtle", Attribute.GRASS, Rarity.R, CardType.BEAST, "Tanky turtle with regeneration abilities.", "resources/images/mossback_turtle.png"));
-        TEMPLATES.add(new CardTemplate("Leaf Pixie", Attribute.GRASS, Rarity.R, CardType.MAGE, "Disruptive support unit, specializes in CC.", "resources/images/leaf_pixie.png"));
-        TEMPLATES.add(new CardTemplate("Vine Hunter", Attribute.GRASS, Rarity.SR, CardType.WARRIOR, "Archer who tracks with entangling vines.", "resources/images/vine_hunter.png"));
-        TEMPLATES.add(new CardTemplate("Boomshroom", Attribute.GRASS, Rarity.SR, CardType.NATURE, "Explodes on attack, high-risk card.", "resources/images/boomshroom.png"));
-        TEMPLATES.add(new CardTemplate("Thorn Witch", Attribute.GRASS, Rarity.SR, CardType.MAGE, "Specializes in poison and control.", "resources/images/thorn_witch.png"));
-        TEMPLATES.add(new CardTemplate("Shadow Leopard", Attribute.GRASS, Rarity.SSR, CardType.BEAST, "Stealthy predator, double strike ability.", "resources/images/shadow_leopard.png"));
-        TEMPLATES.add(new CardTemplate("Glimmerhorn King", Attribute.GRASS, Rarity.SSR, CardType.BEAST, "King of the field, inspires other cards.", "resources/images/glimmerhorn_king.png"));
-        TEMPLATES.add(new CardTemplate("Spirit of Forest", Attribute.GRASS, Rarity.SSR, CardType.ELEMENTAL, "Legendary support card, heals over time.", "resources/images/spirit_of_forest.png"));
-        TEMPLATES.add(new CardTemplate("Petal Guardian", Attribute.GRASS, Rarity.R, CardType.WARRIOR, "Defensive shield unit, ideal for stalling.", "resources/images/petal_guardian.png"));
-        TEMPLATES.add(new CardTemplate("Prairie Windwolf", Attribute.GRASS, Rarity.SR, CardType.BEAST, "Breaks through defense with speed.", "resources/images/prairie_windwolf.png"));
-        // Water attribute cards
-        TEMPLATES.add(new CardTemplate("Bubble Tardigrade", Attribute.WATER, Rarity.R, CardType.BEAST, "Cute yet resilient, restores minor HP.", "resources/images/bubble_tardigrade.png"));
-        TEMPLATES.add(new CardTemplate("Tide Ninja", Attribute.WATER, Rarity.R, CardType.WARRIOR, "High dodge rate, fast assassin.", "resources/images/tide_ninja.png"));
-        TEMPLATES.add(new CardTemplate("Ice-scaled Murloc", Attribute.WATER, Rarity.SR, CardType.BEAST, "Blocks incoming attacks, counter-ready.", "resources/images/ice_scaled_murloc.png"));
-        TEMPLATES.add(new CardTemplate("Aqua Sorcerer", Attribute.WATER, Rarity.SR, CardType.MAGE, "Area caster, slows enemy cards.", "resources/images/aqua_sorcerer.png"));
-        TEMPLATES.add(new CardTemplate("Abyssal Tentacle", Attribute.WATER, Rarity.SR, CardType.NATURE, "Disrupts and binds opponents in place.", "resources/images/abyssal_tentacle.png"));
-        TEMPLATES.add(new CardTemplate("Frost Giant", Attribute.WATER, Rarity.SSR, CardType.ELEMENTAL, "Slows enemies and freezes the battlefield.", "resources/images/frost_giant.png"));
-        TEMPLATES.add(new CardTemplate("Sea King Knight", Attribute.WATER, Rarity.SSR, CardType.WARRIOR, "Leads aquatic troops, aggressive leader.", "resources/images/sea_king_knight.png"));
-        TEMPLATES.add(new CardTemplate("Snowfang Lynx", Attribute.WATER, Rarity.SR, CardType.BEAST, "Fast striker with high crit potential.", "resources/images/snowfang_lynx.png"));
-        TEMPLATES.add(new CardTemplate("Mystic Codex", Attribute.WATER, Rarity.R, CardType.MAGE, "Autonomous water spellcaster.", "resources/images/mystic_codex.png"));
-        TEMPLATES.add(new CardTemplate("Tidal Leviathan", Attribute.WATER, Rarity.SSR, CardType.BEAST, "Devastating waterquake attack, hard to beat.", "resources/images/tidal_leviathan.png"));
+    private final RandomSource randomSource;
+    private final DrawEventSink drawEventSink;
+
+    private volatile PityRule pityRule = PityRule.DEFAULT;
+
+    // All card templates, loaded from the external catalog at startup; a template's index is its id
+    private static final CardCatalog CATALOG = CardCatalog.load();
+    private static final List<CardTemplate> TEMPLATES = CATALOG.getTemplates();
+
+    // Compiled once and shared by every service until a different banner is selected
+    private static final DrawTable STANDARD_TABLE = new DrawTable(Banner.standard());
+
+    // Active banner; swapped copy-on-write so draws never take a lock or see a half-built table
+    private final AtomicReference<DrawTable> drawTable = new AtomicReference<>(STANDARD_TABLE);
+
+    /**
+     * Creates a gacha service using per-thread generators, safe to share between concurrent sessions.
+     * Draws are logged to standard output in the background.
+     */
+    public GachaService() {
+        this(RandomSource.threadLocal());
+    }
+
+    /**
+     * Creates a gacha service with a specific source of randomness, e.g. {@link RandomSource#seeded(long)} for tests.
+     * @param randomSource The source of randomness for all draws.
+     */
+    public GachaService(RandomSource randomSource) {
+        this(randomSource, AsyncDrawEventSink.stdout());
+    }
+
+    /**
+     * Creates a gacha service with a specific source of randomness and draw audit sink.
+     * @param randomSource The source of randomness for all draws.
+     * @param drawEventSink Receives every draw; use {@link DrawEventSink#NONE} to disable auditing.
+     */
+    public GachaService(RandomSource randomSource, DrawEventSink drawEventSink) {
+        this.randomSource = randomSource;
+        this.drawEventSink = drawEventSink;
     }
 
     /**
@@ -61,42 +61,213 @@ public class GachaService {
      * @return A list of randomly generated cards.
      */
     public List<Card> drawCards(int count) {
-        List<Card> cards = new ArrayList<>();
+        return drawCards(count, randomSource.current());
+    }
+
+    /**
+     * Draws cards using a caller-supplied generator instead of this service's random source,
+     * so the same generator state always deals the same cards.
+     * @param count The number of cards to draw.
+     * @param random The generator to draw with.
+     * @return A list of randomly generated cards.
+     */
+    public List<Card> drawCards(int count, RandomGenerator random) {
+        DrawTable table = drawTable.get();
+        List<Card> cards = new ArrayList<>(count);
         for (int i = 0; i < count; i++) {
-            Rarity rarity = getRandomRarity();
-            Attribute attribute = getRandomAttribute();
-            List<CardTemplate> pool = TEMPLATES.stream()
-                    .filter(t -> t.getAttribute() == attribute && t.getRarity() == rarity)
-                    .collect(Collectors.toList());
-            CardTemplate template = pool.get(random.nextInt(pool.size()));
-            int basePower = getRandomPower(rarity);
-            Card card = new Card(template.getName(), attribute, rarity, template.getType(), template.getDescription(), basePower);
-            cards.add(card);
-
-            // Print card details immediately after drawing
-            System.out.printf("[Gacha] Drawn Card: Name=%s, Attribute=%s, Rarity=%s, Type=%s, Power=%d\n",
-                    card.getName(), card.getAttribute(), card.getRarity(), card.getType(), card.getBasePower());
+            cards.add(toCard(drawOne(random, table, table.sampleRarity(random))));
         }
         return cards;
     }
 
-    private Rarity getRandomRarity() {
-        int roll = random.nextInt(100) + 1;
-        if (roll <= Rarity.SSR.getProbability()) {
-            return Rarity.SSR;
-        } else if (roll <= Rarity.SSR.getProbability() + Rarity.SR.getProbability()) {
-            return Rarity.SR;
+    /**
+     * Draws cards for a player, applying pity and updating the player's pity counters.
+     * @param count The number of cards to draw.
+     * @param player The player pulling; if null no pity applies.
+     * @return A list of randomly generated cards.
+     */
+    public List<Card> drawCards(int count, Player player) {
+        if (player == null) {
+            return drawCards(count);
+        }
+        RandomGenerator random = randomSource.current();
+        DrawTable table = drawTable.get();
+        List<Card> cards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            cards.add(toCard(drawOne(random, table, rollRarity(random, table, player))));
+        }
+        return cards;
+    }
+
+    /**
+     * Draws cards into a caller-owned buffer without creating any objects.
+     * Each slot receives a packed draw; use {@link #templateIdOf}, {@link #powerOf} and {@link #toCard}
+     * to read it back when a {@link Card} is actually needed.
+     * @param buffer The buffer to fill.
+     * @param offset The first slot to write.
+     * @param count The number of cards to draw.
+     */
+    public void drawInto(long[] buffer, int offset, int count) {
+        if (offset < 0 || count < 0 || offset + count > buffer.length) {
+            throw new IndexOutOfBoundsException("Cannot draw " + count + " cards at offset " + offset + " into buffer of length " + buffer.length);
+        }
+        RandomGenerator random = randomSource.current();
+        DrawTable table = drawTable.get();
+        for (int i = 0; i < count; i++) {
+            buffer[offset + i] = drawOne(random, table, table.sampleRarity(random));
+        }
+    }
+
+    private Rarity rollRarity(RandomGenerator random, DrawTable table, Player player) {
+        int pullsSinceSsr = player.getPullsSinceSsr();
+        int pullsSinceSr = player.getPullsSinceSr();
+        Rarity rarity = pityRule.apply(table.sampleRarity(random), pullsSinceSsr, pullsSinceSr, random);
+        if (rarity == Rarity.SSR) {
+            player.setPityCounters(0, 0);
+        } else if (rarity == Rarity.SR) {
+            player.setPityCounters(pullsSinceSsr + 1, 0);
         } else {
-            return Rarity.R;
+            player.setPityCounters(pullsSinceSsr + 1, pullsSinceSr + 1);
+        }
+        return rarity;
+    }
+
+    private long drawOne(RandomGenerator random, DrawTable table, Rarity rarity) {
+        int templateId = table.sampleTemplate(random, rarity);
+        long draw = pack(templateId, getRandomPower(random, rarity));
+        drawEventSink.publish(draw);
+        return draw;
+    }
+
+    /**
+     * Packs a template id and a rolled power into a single draw value.
+     * @param templateId The template id, see {@link #getTemplate(int)}.
+     * @param basePower The rolled base power.
+     * @return The packed draw.
+     */
+    public static long pack(int templateId, int basePower) {
+        return ((long) templateId << 32) | (basePower & 0xFFFFFFFFL);
+    }
+
+    public static int templateIdOf(long draw) {
+        return (int) (draw >>> 32);
+    }
+
+    public static int powerOf(long draw) {
+        return (int) draw;
+    }
+
+    /**
+     * Materializes a packed draw as a card.
+     * @param draw The packed draw.
+     * @return A new card for the drawn template and power.
+     */
+    public static Card toCard(long draw) {
+        return new Card(getTemplate(templateIdOf(draw)), powerOf(draw));
+    }
+
+    /**
+     * Materializes a range of packed draws as cards.
+     * @param draws The buffer holding packed draws.
+     * @param offset The first slot to read.
+     * @param count The number of draws to convert.
+     * @return The cards, in buffer order.
+     */
+    public static List<Card> toCards(long[] draws, int offset, int count) {
+        List<Card> cards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            cards.add(toCard(draws[offset + i]));
         }
+        return cards;
+    }
+
+    /**
+     * @param templateId The template id.
+     * @return The template with that id.
+     */
+    public static CardTemplate getTemplate(int templateId) {
+        return TEMPLATES.get(templateId);
     }
 
-    private Attribute getRandomAttribute() {
-        Attribute[] attributes = Attribute.values();
-        return attributes[random.nextInt(attributes.length)];
+    /**
+     * @param name The card name.
+     * @return The id of the template with that name, or -1 if the catalog has no such card.
+     */
+    public static int findTemplateId(String name) {
+        return CATALOG.findId(name);
+    }
+
+    /**
+     * @return The number of templates; valid ids are {@code 0} to {@code getTemplateCount() - 1}.
+     */
+    public static int getTemplateCount() {
+        return TEMPLATES.size();
+    }
+
+    /**
+     * @return The fingerprint of the card catalog, see {@link CardCatalog#getFingerprint()}.
+     */
+    public static int getCatalogFingerprint() {
+        return CATALOG.getFingerprint();
+    }
+
+    /**
+     * Switches subsequent draws to another banner. The banner is compiled before the swap,
+     * so draws already in progress finish on the old tables.
+     * @param banner The banner to activate.
+     */
+    public void setBanner(Banner banner) {
+        drawTable.set(new DrawTable(banner));
+    }
+
+    /**
+     * Switches back to the standard banner.
+     */
+    public void resetBanner() {
+        drawTable.set(STANDARD_TABLE);
+    }
+
+    public Banner getBanner() {
+        return drawTable.get().getBanner();
+    }
+
+    /**
+     * Configured rates of the active banner, as certified by {@link simulation.GachaSimulator}.
+     * @return The probability of drawing each template, indexed by template id, ignoring pity.
+     */
+    public double[] getTemplateRates() {
+        return drawTable.get().getTemplateProbabilities();
+    }
+
+    /**
+     * Replaces the rarity rates of the active banner for subsequent draws.
+     * @param weights One weight per rarity, in {@link Rarity} declaration order.
+     */
+    public void setRarityWeights(double... weights) {
+        double[] copy = weights.clone();
+        drawTable.updateAndGet(table -> new DrawTable(table.getBanner().withRarityWeights(copy)));
+    }
+
+    /**
+     * Replaces the pity rule used by subsequent player draws.
+     * @param pityRule The new rule; {@link PityRule#NONE} disables pity.
+     */
+    public void setPityRule(PityRule pityRule) {
+        this.pityRule = pityRule;
+    }
+
+    public PityRule getPityRule() {
+        return pityRule;
+    }
+
+    /**
+     * Restores the rarity rates declared on the {@link Rarity} enum for the active banner.
+     */
+    public void resetRarityWeights() {
+        drawTable.updateAndGet(table -> new DrawTable(table.getBanner().withRarityWeights(null)));
     }
 
-    private int getRandomPower(Rarity rarity) {
+    private static int getRandomPower(RandomGenerator random, Rarity rarity) {
         return random.nextInt(rarity.getMaxPower() - rarity.getMinPower() + 1) + rarity.getMinPower();
     }
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package service;
+
+import model.Rarity;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Pity configuration for gacha draws.
+ * <ul>
+ *   <li>Soft pity: from the {@code softPityStart}-th pull without an SSR, each further pull adds
+ *       {@code softPityStepBasisPoints} to the chance of forcing an SSR.</li>
+ *   <li>Hard pity: the {@code hardPity}-th pull without an SSR is always an SSR.</li>
+ *   <li>SR guarantee: the {@code srGuarantee}-th pull without an SR or better is upgraded to at least SR.</li>
+ * </ul>
+ * The per-player state is just the two counters kept on {@link model.Player}.
+ */
+public final class PityRule {
+
+    /**
+     * Default rule: soft pity from pull 20, hard pity at pull 30, an SR or better in every 10 pulls.
+     */
+    public static final PityRule DEFAULT = new PityRule(20, 1000, 30, 10);
+
+    /**
+     * A rule that never intervenes.
+     */
+    public static final PityRule NONE = new PityRule(Integer.MAX_VALUE, 0, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    private static final int BASIS_POINTS = 10_000;
+
+    private final int softPityStart;
+    private final int softPityStepBasisPoints;
+    private final int hardPity;
+    private final int srGuarantee;
+
+    /**
+     * @param softPityStart The pull number (counting since the last SSR) at which the SSR chance starts ramping up.
+     * @param softPityStepBasisPoints Extra SSR chance per pull past the soft pity start, in basis points (1/100 of a percent).
+     * @param hardPity The pull number at which an SSR is guaranteed.
+     * @param srGuarantee The pull number at which an SR or better is guaranteed.
+     */
+    public PityRule(int softPityStart, int softPityStepBasisPoints, int hardPity, int srGuarantee) {
+        if (softPityStart < 1 || hardPity < 1 || srGuarantee < 1 || softPityStepBasisPoints < 0) {
+            throw new IllegalArgumentException("Invalid pity configuration.");
+        }
+        this.softPityStart = softPityStart;
+        this.softPityStepBasisPoints = softPityStepBasisPoints;
+        this.hardPity = hardPity;
+        this.srGuarantee = srGuarantee;
+    }
+
+    /**
+     * Applies pity to a rarity rolled from the normal rates.
+     * Outside the soft pity window this is a couple of integer comparisons and consumes no randomness.
+     * @param rolled The rarity rolled from the normal rates.
+     * @param pullsSinceSsr Pulls made since the last SSR.
+     * @param pullsSinceSr Pulls made since the last SR or better.
+     * @param random Source for the soft pity roll.
+     * @return The rarity to award.
+     */
+    public Rarity apply(Rarity rolled, int pullsSinceSsr, int pullsSinceSr, RandomGenerator random) {
+        int pull = pullsSinceSsr + 1;
+        if (pull >= hardPity) {
+            return Rarity.SSR;
+        }
+        if (rolled != Rarity.SSR && pull >= softPityStart
+                && random.nextInt(BASIS_POINTS) < (long) (pull - softPityStart + 1) * softPityStepBasisPoints) {
+            return Rarity.SSR;
+        }
+        if (rolled == Rarity.R && pullsSinceSr + 1 >= srGuarantee) {
+            return Rarity.SR;
+        }
+        return rolled;
+    }
+
+    public int getSoftPityStart() {
+        return softPityStart;
+    }
+
+    public int getSoftPityStepBasisPoints() {
+        return softPityStepBasisPoints;
+    }
+
+    public int getHardPity() {
+        return hardPity;
+    }
+
+    public int getSrGuarantee() {
+        return srGuarantee;
+    }
+}
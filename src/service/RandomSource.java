@@ -0,0 +1,46 @@
+package service;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Supplies the random generator a service should use on the calling thread.
+ * Services ask for the generator once per operation instead of holding a single shared {@link java.util.Random}.
+ */
+@FunctionalInterface
+public interface RandomSource {
+
+    /**
+     * @return The generator to use on the calling thread.
+     */
+    RandomGenerator current();
+
+    /**
+     * Per-thread generators with no shared state; draws on different threads never contend.
+     * @return A source backed by {@link ThreadLocalRandom}.
+     */
+    static RandomSource threadLocal() {
+        return ThreadLocalRandom::current;
+    }
+
+    /**
+     * A reproducible source: the same seed yields the same sequence.
+     * The underlying generator is not thread-safe, so a seeded source must only be used from one thread at a time;
+     * give each worker its own seed (or a {@link SplittableRandom#split()}) for parallel work.
+     * @param seed The seed.
+     * @return A source backed by a single {@link SplittableRandom}.
+     */
+    static RandomSource seeded(long seed) {
+        return of(new SplittableRandom(seed));
+    }
+
+    /**
+     * Wraps a fixed generator, for callers that manage their own generator per thread.
+     * @param generator The generator to hand out.
+     * @return A source that always returns {@code generator}.
+     */
+    static RandomSource of(RandomGenerator generator) {
+        return () -> generator;
+    }
+}
@@ -0,0 +1,217 @@
+package simulation;
+
+import model.Attribute;
+import model.CardTemplate;
+import model.Rarity;
+import service.Banner;
+import service.GachaService;
+
+/**
+ * Result of a {@link GachaSimulator} run: observed counts per template next to the configured rates,
+ * aggregated per rarity, attribute and template with 95% confidence intervals and chi-square goodness-of-fit tests.
+ */
+public class SimulationReport {
+    private static final double Z_95 = 1.959963984540054;
+
+    private final Banner banner;
+    private final double[] expectedRates;
+    private final long[] templateCounts;
+    private final long totalDraws;
+    private final long elapsedNanos;
+
+    SimulationReport(Banner banner, double[] expectedRates, long[] templateCounts, long elapsedNanos) {
+        this.banner = banner;
+        this.expectedRates = expectedRates;
+        this.templateCounts = templateCounts;
+        this.elapsedNanos = elapsedNanos;
+        long total = 0;
+        for (long count : templateCounts) {
+            total += count;
+        }
+        this.totalDraws = total;
+    }
+
+    public long getTotalDraws() {
+        return totalDraws;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getTemplateCount(int templateId) {
+        return templateCounts[templateId];
+    }
+
+    public double getExpectedTemplateRate(int templateId) {
+        return expectedRates[templateId];
+    }
+
+    public long getRarityCount(Rarity rarity) {
+        return groupCounts(rarityGroups(), Rarity.values().length)[rarity.ordinal()];
+    }
+
+    public long getAttributeCount(Attribute attribute) {
+        return groupCounts(attributeGroups(), Attribute.values().length)[attribute.ordinal()];
+    }
+
+    /**
+     * @return Chi-square test of the observed rarity distribution against the configured one.
+     */
+    public ChiSquareTest testRarities() {
+        return chiSquare(rarityGroups(), Rarity.values().length);
+    }
+
+    /**
+     * @return Chi-square test of the observed attribute distribution against the configured one.
+     */
+    public ChiSquareTest testAttributes() {
+        return chiSquare(attributeGroups(), Attribute.values().length);
+    }
+
+    /**
+     * @return Chi-square test of the observed template distribution against the configured one.
+     */
+    public ChiSquareTest testTemplates() {
+        int[] groups = new int[templateCounts.length];
+        for (int id = 0; id < groups.length; id++) {
+            groups[id] = id;
+        }
+        return chiSquare(groups, templateCounts.length);
+    }
+
+    private int[] rarityGroups() {
+        int[] groups = new int[templateCounts.length];
+        for (int id = 0; id < groups.length; id++) {
+            groups[id] = GachaService.getTemplate(id).getRarity().ordinal();
+        }
+        return groups;
+    }
+
+    private int[] attributeGroups() {
+        int[] groups = new int[templateCounts.length];
+        for (int id = 0; id < groups.length; id++) {
+            groups[id] = GachaService.getTemplate(id).getAttribute().ordinal();
+        }
+        return groups;
+    }
+
+    private long[] groupCounts(int[] groups, int groupCount) {
+        long[] counts = new long[groupCount];
+        for (int id = 0; id < groups.length; id++) {
+            counts[groups[id]] += templateCounts[id];
+        }
+        return counts;
+    }
+
+    private double[] groupRates(int[] groups, int groupCount) {
+        double[] rates = new double[groupCount];
+        for (int id = 0; id < groups.length; id++) {
+            rates[groups[id]] += expectedRates[id];
+        }
+        return rates;
+    }
+
+    private ChiSquareTest chiSquare(int[] groups, int groupCount) {
+        long[] observed = groupCounts(groups, groupCount);
+        double[] expected = groupRates(groups, groupCount);
+        double statistic = 0;
+        int categories = 0;
+        for (int i = 0; i < groupCount; i++) {
+            if (expected[i] > 0) {
+                double expectedCount = expected[i] * totalDraws;
+                double difference = observed[i] - expectedCount;
+                statistic += difference * difference / expectedCount;
+                categories++;
+            } else if (observed[i] > 0) {
+                // Something was drawn that the banner says cannot be drawn
+                statistic = Double.POSITIVE_INFINITY;
+            }
+        }
+        int degreesOfFreedom = Math.max(categories - 1, 1);
+        return new ChiSquareTest(statistic, degreesOfFreedom, Statistics.chiSquarePValue(statistic, degreesOfFreedom));
+    }
+
+    /**
+     * Outcome of a chi-square goodness-of-fit test.
+     */
+    public static class ChiSquareTest {
+        private final double statistic;
+        private final int degreesOfFreedom;
+        private final double pValue;
+
+        ChiSquareTest(double statistic, int degreesOfFreedom, double pValue) {
+            this.statistic = statistic;
+            this.degreesOfFreedom = degreesOfFreedom;
+            this.pValue = pValue;
+        }
+
+        public double getStatistic() {
+            return statistic;
+        }
+
+        public int getDegreesOfFreedom() {
+            return degreesOfFreedom;
+        }
+
+        public double getPValue() {
+            return pValue;
+        }
+
+        /**
+         * @param significance The significance level, e.g. 0.01.
+         * @return True if the observed distribution is consistent with the configured one at that level.
+         */
+        public boolean passes(double significance) {
+            return pValue >= significance;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("chi2=%.3f, df=%d, p=%.4f", statistic, degreesOfFreedom, pValue);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Banner: %s, draws: %,d, time: %.2fs (%.1f M draws/s)%n",
+                banner.getName(), totalDraws, elapsedNanos / 1e9, totalDraws / (elapsedNanos / 1e3)));
+
+        sb.append(String.format("%nRarity (%s)%n", testRarities()));
+        appendHeader(sb);
+        long[] rarityCounts = groupCounts(rarityGroups(), Rarity.values().length);
+        double[] rarityRates = groupRates(rarityGroups(), Rarity.values().length);
+        for (Rarity rarity : Rarity.values()) {
+            appendRow(sb, rarity.name(), rarityCounts[rarity.ordinal()], rarityRates[rarity.ordinal()]);
+        }
+
+        sb.append(String.format("%nAttribute (%s)%n", testAttributes()));
+        appendHeader(sb);
+        long[] attributeCounts = groupCounts(attributeGroups(), Attribute.values().length);
+        double[] attributeRates = groupRates(attributeGroups(), Attribute.values().length);
+        for (Attribute attribute : Attribute.values()) {
+            appendRow(sb, attribute.name(), attributeCounts[attribute.ordinal()], attributeRates[attribute.ordinal()]);
+        }
+
+        sb.append(String.format("%nTemplate (%s)%n", testTemplates()));
+        appendHeader(sb);
+        for (int id = 0; id < templateCounts.length; id++) {
+            CardTemplate template = GachaService.getTemplate(id);
+            appendRow(sb, template.getName() + " [" + template.getRarity() + "]", templateCounts[id], expectedRates[id]);
+        }
+        return sb.toString();
+    }
+
+    private static void appendHeader(StringBuilder sb) {
+        sb.append(String.format("  %-28s %16s %10s %10s %23s%n", "", "count", "expected", "observed", "95% CI"));
+    }
+
+    private void appendRow(StringBuilder sb, String label, long count, double expected) {
+        double observed = totalDraws == 0 ? 0 : (double) count / totalDraws;
+        double[] interval = Statistics.wilsonInterval(count, totalDraws, Z_95);
+        sb.append(String.format("  %-28s %,16d %9.5f%% %9.5f%% [%9.5f%%, %9.5f%%]%s%n",
+                label, count, expected * 100, observed * 100, interval[0] * 100, interval[1] * 100,
+                expected < interval[0] || expected > interval[1] ? " *" : ""));
+    }
+}
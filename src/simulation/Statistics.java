@@ -0,0 +1,111 @@
+package simulation;
+
+/**
+ * Small numerical helpers for the simulation reports.
+ */
+final class Statistics {
+    private static final double[] LANCZOS = {
+            76.18009172947146, -86.50532032941677, 24.01409824083091,
+            -1.231739572450155, 0.1208650973866179e-2, -0.5395239384953e-5
+    };
+    private static final int MAX_ITERATIONS = 10_000;
+    private static final double EPSILON = 1e-15;
+
+    private Statistics() {
+    }
+
+    /**
+     * Wilson score interval for a binomial proportion.
+     * @param successes Number of successes.
+     * @param trials Number of trials.
+     * @param z The standard normal quantile, e.g. 1.96 for 95%.
+     * @return Lower and upper bound.
+     */
+    static double[] wilsonInterval(long successes, long trials, double z) {
+        if (trials == 0) {
+            return new double[] {0, 1};
+        }
+        double p = (double) successes / trials;
+        double z2 = z * z;
+        double denominator = 1 + z2 / trials;
+        double centre = (p + z2 / (2.0 * trials)) / denominator;
+        double halfWidth = z * Math.sqrt(p * (1 - p) / trials + z2 / (4.0 * trials * trials)) / denominator;
+        return new double[] {Math.max(0, centre - halfWidth), Math.min(1, centre + halfWidth)};
+    }
+
+    /**
+     * Upper tail probability of the chi-square distribution.
+     * @param statistic The chi-square statistic.
+     * @param degreesOfFreedom Degrees of freedom.
+     * @return P(X >= statistic).
+     */
+    static double chiSquarePValue(double statistic, int degreesOfFreedom) {
+        if (Double.isInfinite(statistic)) {
+            return 0;
+        }
+        if (statistic <= 0) {
+            return 1;
+        }
+        return regularizedGammaQ(degreesOfFreedom / 2.0, statistic / 2.0);
+    }
+
+    private static double regularizedGammaQ(double a, double x) {
+        if (x < a + 1) {
+            return 1 - gammaSeries(a, x);
+        }
+        return gammaContinuedFraction(a, x);
+    }
+
+    private static double gammaSeries(double a, double x) {
+        double term = 1 / a;
+        double sum = term;
+        double ap = a;
+        for (int n = 0; n < MAX_ITERATIONS; n++) {
+            ap++;
+            term *= x / ap;
+            sum += term;
+            if (Math.abs(term) < Math.abs(sum) * EPSILON) {
+                break;
+            }
+        }
+        return sum * Math.exp(-x + a * Math.log(x) - logGamma(a));
+    }
+
+    private static double gammaContinuedFraction(double a, double x) {
+        double tiny = 1e-300;
+        double b = x + 1 - a;
+        double c = 1 / tiny;
+        double d = 1 / b;
+        double h = d;
+        for (int i = 1; i < MAX_ITERATIONS; i++) {
+            double an = -i * (i - a);
+            b += 2;
+            d = an * d + b;
+            if (Math.abs(d) < tiny) {
+                d = tiny;
+            }
+            c = b + an / c;
+            if (Math.abs(c) < tiny) {
+                c = tiny;
+            }
+            d = 1 / d;
+            double delta = d * c;
+            h *= delta;
+            if (Math.abs(delta - 1) < EPSILON) {
+                break;
+            }
+        }
+        return Math.exp(-x + a * Math.log(x) - logGamma(a)) * h;
+    }
+
+    private static double logGamma(double x) {
+        double y = x;
+        double tmp = x + 5.5;
+        tmp -= (x + 0.5) * Math.log(tmp);
+        double series = 1.000000000190015;
+        for (double coefficient : LANCZOS) {
+            series += coefficient / ++y;
+        }
+        return -tmp + Math.log(2.5066282746310005 * series / x);
+    }
+}
@@ -0,0 +1,94 @@
+package simulation;
+
+/**
+ * Aggregate outcome of a tournament run, seen from the player side.
+ */
+public class TournamentReport {
+    static final int MATCH_PLAYER = 0;
+    static final int MATCH_COMPUTER = 1;
+    static final int MATCH_DRAW = 2;
+    static final int ROUND_PLAYER = 3;
+    static final int ROUND_COMPUTER = 4;
+    static final int ROUND_DRAW = 5;
+    static final int COUNTERS = 6;
+
+    private static final double Z_95 = 1.959963984540054;
+
+    private final long matches;
+    private final int handSize;
+    private final long[] counts;
+    private final long elapsedNanos;
+
+    TournamentReport(long matches, int handSize, long[] counts, long elapsedNanos) {
+        this.matches = matches;
+        this.handSize = handSize;
+        this.counts = counts;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getMatches() {
+        return matches;
+    }
+
+    public long getPlayerWins() {
+        return counts[MATCH_PLAYER];
+    }
+
+    public long getComputerWins() {
+        return counts[MATCH_COMPUTER];
+    }
+
+    public long getDraws() {
+        return counts[MATCH_DRAW];
+    }
+
+    public long getRoundsWonByPlayer() {
+        return counts[ROUND_PLAYER];
+    }
+
+    public long getRoundsWonByComputer() {
+        return counts[ROUND_COMPUTER];
+    }
+
+    public long getRoundsDrawn() {
+        return counts[ROUND_DRAW];
+    }
+
+    /**
+     * @return Fraction of matches won by the player side.
+     */
+    public double getPlayerWinRate() {
+        return (double) counts[MATCH_PLAYER] / matches;
+    }
+
+    /**
+     * @return Wall-clock duration of the run in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        double seconds = elapsedNanos / 1e9;
+        sb.append(String.format("Matches: %,d x %d rounds, time: %.2fs (%,.0f matches/s)%n",
+                matches, handSize, seconds, matches / seconds));
+        sb.append(String.format("%n  %-16s %14s %10s %23s%n", "Matches", "count", "share", "95% CI"));
+        appendRow(sb, "Player wins", counts[MATCH_PLAYER], matches);
+        appendRow(sb, "Computer wins", counts[MATCH_COMPUTER], matches);
+        appendRow(sb, "Draws", counts[MATCH_DRAW], matches);
+        long rounds = matches * handSize;
+        sb.append(String.format("%n  %-16s %14s %10s %23s%n", "Rounds", "count", "share", "95% CI"));
+        appendRow(sb, "Player wins", counts[ROUND_PLAYER], rounds);
+        appendRow(sb, "Computer wins", counts[ROUND_COMPUTER], rounds);
+        appendRow(sb, "Draws", counts[ROUND_DRAW], rounds);
+        return sb.toString();
+    }
+
+    private static void appendRow(StringBuilder sb, String label, long count, long total) {
+        double[] interval = Statistics.wilsonInterval(count, total, Z_95);
+        sb.append(String.format("  %-16s %,14d %9.3f%% [%9.3f%%, %9.3f%%]%n",
+                label, count, 100.0 * count / total, 100 * interval[0], 100 * interval[1]));
+    }
+}
@@ -0,0 +1,175 @@
+package simulation;
+
+import ai.CardOrderSolver;
+import ai.MctsOpponent;
+import controller.GameController;
+import controller.PlayStrategy;
+import service.BattleService;
+import service.DrawEventSink;
+import service.GachaService;
+import service.RandomSource;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Headless bot-vs-bot tournament runner.
+ * Matches are split into fixed-size chunks run on a fork-join pool; every chunk has its own generator,
+ * game controller and strategy instances, so nothing mutable is shared between workers.
+ * The player's hand is drawn from the standard banner and every match is played in seeded mode,
+ * with both sides using the deterministic version of their strategy.
+ * Results for a given pair of strategies, match count and seed are reproducible regardless of the number of threads.
+ */
+public class TournamentRunner {
+    private static final long CHUNK_SIZE = 1024;
+    public static final int DEFAULT_HAND_SIZE = 10;
+
+    private final Supplier<PlayStrategy> playerStrategy;
+    private final Supplier<PlayStrategy> computerStrategy;
+    private final int handSize;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a runner for 10-card matches using every available core.
+     * @param playerStrategy Supplies the player side's strategy; called once per chunk, and chunks run in parallel,
+     *                       so it must return a new instance per call or a thread-safe one.
+     * @param computerStrategy Supplies the computer side's strategy, under the same rules.
+     */
+    public TournamentRunner(Supplier<PlayStrategy> playerStrategy, Supplier<PlayStrategy> computerStrategy) {
+        this(playerStrategy, computerStrategy, DEFAULT_HAND_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param playerStrategy Supplies the player side's strategy; called once per chunk, and chunks run in parallel,
+     *                       so it must return a new instance per call or a thread-safe one.
+     * @param computerStrategy Supplies the computer side's strategy, under the same rules.
+     * @param handSize Number of cards, and therefore rounds, per match.
+     * @param pool The pool that runs the match chunks.
+     */
+    public TournamentRunner(Supplier<PlayStrategy> playerStrategy, Supplier<PlayStrategy> computerStrategy,
+                            int handSize, ForkJoinPool pool) {
+        if (handSize <= 0) {
+            throw new IllegalArgumentException("Hand size must be positive.");
+        }
+        this.playerStrategy = playerStrategy;
+        this.computerStrategy = computerStrategy;
+        this.handSize = handSize;
+        this.pool = pool;
+    }
+
+    /**
+     * Runs the tournament.
+     * @param matches Total number of matches.
+     * @param seed Seed from which every chunk's generator is derived.
+     * @return Aggregate match and round outcomes.
+     */
+    public TournamentReport run(long matches, long seed) {
+        if (matches <= 0) {
+            throw new IllegalArgumentException("Match count must be positive.");
+        }
+        long chunks = (matches + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        long start = System.nanoTime();
+        long[] counts = pool.invoke(new ChunkTask(matches, seed, 0, chunks));
+        long elapsedNanos = System.nanoTime() - start;
+        return new TournamentReport(matches, handSize, counts, elapsedNanos);
+    }
+
+    private class ChunkTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final long totalMatches;
+        private final long seed;
+        private final long fromChunk;
+        private final long toChunk;
+
+        ChunkTask(long totalMatches, long seed, long fromChunk, long toChunk) {
+            this.totalMatches = totalMatches;
+            this.seed = seed;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (toChunk - fromChunk > 1) {
+                long middle = (fromChunk + toChunk) >>> 1;
+                ChunkTask left = new ChunkTask(totalMatches, seed, fromChunk, middle);
+                ChunkTask right = new ChunkTask(totalMatches, seed, middle, toChunk);
+                left.fork();
+                long[] counts = right.compute();
+                long[] leftCounts = left.join();
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += leftCounts[i];
+                }
+                return counts;
+            }
+            return runChunk(fromChunk);
+        }
+
+        private long[] runChunk(long chunk) {
+            SplittableRandom random = new SplittableRandom(GachaSimulator.chunkSeed(seed, chunk));
+            RandomSource randomSource = RandomSource.of(random);
+            GachaService gachaService = new GachaService(randomSource, DrawEventSink.NONE);
+            GameController controller = new GameController(gachaService, new BattleService(), randomSource);
+            controller.setComputerStrategy(computerStrategy.get());
+            PlayStrategy player = playerStrategy.get().deterministic();
+
+            long[] counts = new long[TournamentReport.COUNTERS];
+            long matches = Math.min(CHUNK_SIZE, totalMatches - chunk * CHUNK_SIZE);
+            for (long m = 0; m < matches; m++) {
+                controller.setBattleCards(gachaService.drawCards(handSize), random.nextLong());
+                for (int round = 0; round < handSize; round++) {
+                    int before = controller.getPlayerScore() - controller.getComputerScore();
+                    controller.playSlot(player.chooseCard(controller.getPlayerHand(), controller.getComputerHand(),
+                            before, random));
+                    int after = controller.getPlayerScore() - controller.getComputerScore();
+                    counts[after > before ? TournamentReport.ROUND_PLAYER
+                            : after < before ? TournamentReport.ROUND_COMPUTER : TournamentReport.ROUND_DRAW]++;
+                }
+                int margin = controller.getPlayerScore() - controller.getComputerScore();
+                counts[margin > 0 ? TournamentReport.MATCH_PLAYER
+                        : margin < 0 ? TournamentReport.MATCH_COMPUTER : TournamentReport.MATCH_DRAW]++;
+            }
+            return counts;
+        }
+    }
+
+    /**
+     * Runs a tournament between two built-in strategies and prints the report.
+     * @param args Optional match count (default 100,000), seed (default 42),
+     *             player strategy and computer strategy (FIRST, RANDOM, STRONGEST, SOLVER or MCTS; default RANDOM vs FIRST).
+     */
+    public static void main(String[] args) {
+        long matches = args.length > 0 ? Long.parseLong(args[0]) : 100_000L;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+        String playerName = args.length > 2 ? args[2].toUpperCase() : "RANDOM";
+        String computerName = args.length > 3 ? args[3].toUpperCase() : "FIRST";
+        // The built-in strategies are thread-safe, so every chunk shares one instance (and the solver its cache)
+        PlayStrategy player = builtIn(playerName);
+        PlayStrategy computer = builtIn(computerName);
+
+        System.out.println("Running " + matches + " matches of " + playerName + " vs " + computerName
+                + " on " + ForkJoinPool.getCommonPoolParallelism() + " workers...");
+        TournamentReport report = new TournamentRunner(() -> player, () -> computer).run(matches, seed);
+        System.out.println(report);
+    }
+
+    private static PlayStrategy builtIn(String name) {
+        switch (name) {
+            case "FIRST":
+                return PlayStrategy.FIRST;
+            case "RANDOM":
+                return PlayStrategy.RANDOM;
+            case "STRONGEST":
+                return PlayStrategy.STRONGEST;
+            case "SOLVER":
+                return new CardOrderSolver();
+            case "MCTS":
+                return new MctsOpponent();
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + name);
+        }
+    }
+}
@@ -1,15 +1,18 @@
 package view;
 
+import controller.Difficulty;
 import controller.GameController;
 import model.Card;
 import model.Player; // Import Player for stats
 import service.BattleService.BattleResult;
 import database.GameRecordService; // Import GameRecordService
+import replay.MatchLog;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.LinkedHashMap;
@@ -57,6 +60,8 @@ public class GameGUI extends JFrame {
     private DefaultListModel<Player> rankingListModel; // 改為Player型別
     private JList<Player> rankingList; // 改為Player型別
     private JProgressBar xpBar;      // Progress bar for XP
+    private Difficulty difficulty = Difficulty.NORMAL; // 電腦對手難度，大廳重建時保留選擇
+    private boolean writeFailureShowing; // 存檔失敗對話框是否開啟中（只在 EDT 存取）
 
     // Fields for login panel components that need to be accessed by LoginWorker
     private JTextField usernameField;
@@ -70,8 +75,19 @@ public class GameGUI extends JFrame {
      */
     public GameGUI() {
         gameController = new GameController();
+        gameController.setDifficulty(difficulty);
         gameController.startGame();
-        recordService = new GameRecordService(); // 初始化資料庫和表格        // 設置基本窗口属性
+        // 每場對戰都寫入對戰紀錄檔，供日後重播與爭議處理
+        try {
+            gameController.setMatchLog(MatchLog.open(GameRecordService.DATA_DIR.resolve("matches.log")));
+        } catch (IOException e) {
+            System.err.println("[MatchLog] Failed to open match log: " + e.getMessage());
+        }
+        recordService = new GameRecordService(); // 初始化資料庫和表格
+        // 存檔在背景執行緒提交，呼叫端只知道已排入佇列；提交失敗時在這裡提示玩家
+        recordService.setWriteFailureListener((description, cause) ->
+                SwingUtilities.invokeLater(() -> showWriteFailure(description, cause)));
+        // 設置基本窗口属性
         setTitle("卡牌對決：元素抽卡競技場");
         setSize(900, 650);
         setDefaultCloseOperation(EXIT_ON_CLOSE);
@@ -326,7 +342,7 @@ public class GameGUI extends JFrame {
         JButton checkDeckButton = createStyledButton("檢視牌組", e -> showDeck());
         JButton rankingButton = createStyledButton("排行榜", e -> showRankingPanel());
         
-        // 布局按鈕 (2x2網格)
+        // 布局按鈕 (2x2網格，下方為難度選擇)
         gbc.gridx = 0; gbc.gridy = 0;
         mainButtonsPanel.add(drawEntry, gbc);
         
@@ -338,6 +354,21 @@ public class GameGUI extends JFrame {
         
         gbc.gridx = 1; gbc.gridy = 1;
         mainButtonsPanel.add(rankingButton, gbc);
+
+        // 電腦難度選擇 (橫跨兩欄)
+        JPanel difficultyPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 0));
+        difficultyPanel.add(new JLabel("電腦難度:"));
+        String[] difficultyNames = {"簡單", "普通", "困難"}; // 依 Difficulty 順序
+        JComboBox<String> difficultyCombo = new JComboBox<>(difficultyNames);
+        difficultyCombo.setSelectedIndex(difficulty.ordinal());
+        difficultyCombo.addActionListener(e -> {
+            difficulty = Difficulty.values()[difficultyCombo.getSelectedIndex()];
+            gameController.setDifficulty(difficulty);
+        });
+        difficultyPanel.add(difficultyCombo);
+        gbc.gridx = 0; gbc.gridy = 2; gbc.gridwidth = 2;
+        mainButtonsPanel.add(difficultyPanel, gbc);
+        gbc.gridwidth = 1;
         
         // 管理面板 - 包含退出和管理功能
         JPanel adminPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 5));
@@ -499,6 +530,7 @@ public class GameGUI extends JFrame {
             Card newCard = gameController.drawCard();
             if (currentPlayer != null) { // Fix: Check if currentPlayer is not null
                 recordService.saveCardToDeck(currentPlayer.getUsername(), newCard); // Fix: Use currentPlayer.getUsername()
+                recordService.savePlayerData(currentPlayer); // 保存保底計數
             }
             
             // 顯示抽卡動畫
@@ -513,10 +545,9 @@ public class GameGUI extends JFrame {
             showAnimationEffect("card_draw");
             
             List<Card> newCards = gameController.drawMultiple(10);
-            for (Card card : newCards) {
-                if (currentPlayer != null) { // Fix: Check if currentPlayer is not null
-                    recordService.saveCardToDeck(currentPlayer.getUsername(), card); // Fix: Use currentPlayer.getUsername()
-                }
+            if (currentPlayer != null) {
+                recordService.saveCardsToDeck(currentPlayer.getUsername(), newCards); // 十張卡片一次交易寫入
+                recordService.savePlayerData(currentPlayer); // 保存保底計數
             }
             updateCardButtons();
             showDrawCardPanel();
@@ -638,11 +669,10 @@ public class GameGUI extends JFrame {
 
     private void playRound(int playerCardIndex) {
         try {
-            // 在戰鬥前獲取玩家和電腦卡牌用於日誌記錄
-            Card playerCard = gameController.getPlayerCards().get(playerCardIndex);
-            Card computerCard = gameController.getComputerCards().get(0); // 假設電腦選擇第一張
-
+            // 戰鬥後取得雙方實際打出的卡牌用於日誌記錄
             BattleResult result = gameController.playRound(playerCardIndex);
+            Card playerCard = gameController.getLastPlayerCard();
+            Card computerCard = gameController.getLastComputerCard(); // 電腦依策略選出的卡牌
 
             // 更新電腦卡牌顯示
             computerCardPanel.removeAll();
@@ -670,7 +700,7 @@ public class GameGUI extends JFrame {
             computerCardPanel.repaint();
 
             // 使用正確的回合数記錄更詳細的戰鬥信息
-            int logRound = 10 - gameController.getPlayerCards().size();
+            int logRound = gameController.getRoundsPlayed();
             gameLog.append(String.format("\n回合 %d:\n", logRound));
             gameLog.append(String.format("玩家出牌: %s (%s %s, 力量: %d)\n",
                     playerCard.getName(), playerCard.getRarity(), playerCard.getAttribute(), playerCard.getBasePower()));
@@ -695,7 +725,7 @@ public class GameGUI extends JFrame {
                     gameController.getPlayerScore(), gameController.getComputerScore()));
             // 只在還有剩餘卡牌時更新回合數
             if (!gameController.getPlayerCards().isEmpty()) {
-                int currentRound = 10 - gameController.getPlayerCards().size() + 1; // 正確的回合計算
+                int currentRound = gameController.getRoundsPlayed() + 1;
                 roundLabel.setText(String.format("回合: %d/10", currentRound));
             }
 
@@ -1011,6 +1041,20 @@ public class GameGUI extends JFrame {
         deckDialog.setVisible(true);
     }
 
+    // 同時只顯示一個存檔失敗對話框，避免資料庫故障時連續跳出大量視窗
+    private void showWriteFailure(String description, Exception cause) {
+        if (writeFailureShowing) {
+            return;
+        }
+        writeFailureShowing = true;
+        try {
+            JOptionPane.showMessageDialog(this, "資料儲存失敗（" + description + "）：\n" + cause.getMessage(),
+                    "存檔錯誤", JOptionPane.ERROR_MESSAGE);
+        } finally {
+            writeFailureShowing = false;
+        }
+    }
+
     private void showLoginPanel() {
         CardLayout layout = (CardLayout) mainPanel.getLayout();
         layout.show(mainPanel, "Login");